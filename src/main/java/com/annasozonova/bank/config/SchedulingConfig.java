@@ -0,0 +1,12 @@
+package com.annasozonova.bank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (housekeeping, maintenance).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -79,6 +79,9 @@ public class SecurityConfig {
                         // User management: ADMIN only
                         .requestMatchers("/users/**").hasRole("ADMIN")
 
+                        // Operational endpoints: ADMIN only
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,137 @@
+package com.annasozonova.bank.controller;
+
+import com.annasozonova.bank.dto.BalanceMismatchDto;
+import com.annasozonova.bank.dto.BulkCardStatusRequest;
+import com.annasozonova.bank.dto.BulkCardStatusResultDto;
+import com.annasozonova.bank.dto.CardContentionDto;
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.service.CardImport;
+import com.annasozonova.bank.service.CardImportService;
+import com.annasozonova.bank.service.CardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Controller for operational card endpoints.
+ * Accessible to administrators only.
+ */
+@RestController
+@RequestMapping("/api/admin/cards")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Card administration", description = "Operational card diagnostics and bulk operations (ADMIN only)")
+@PreAuthorize("hasRole('ADMIN')")
+public class CardAdminController {
+
+    private final CardService cardService;
+    private final CardImportService importService;
+
+    @Autowired
+    public CardAdminController(CardService cardService, CardImportService importService) {
+        this.cardService = cardService;
+        this.importService = importService;
+    }
+
+    /**
+     * Lists the cards that cause the most row lock waiting and concurrency conflicts,
+     * e.g. merchant or payroll cards that need special handling.
+     *
+     * @param limit maximum number of cards to return
+     * @return most contended cards first
+     */
+    @Operation(summary = "List most contended cards",
+            description = "Cards ranked by lock wait and conflict time since start or last reset (ADMIN only)")
+    @GetMapping("/contention")
+    public ResponseEntity<List<CardContentionDto>> getContendedCards(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(cardService.getContendedCards(limit));
+    }
+
+    /**
+     * Clears the contention statistics to start a new observation window.
+     *
+     * @return 204 No Content
+     */
+    @Operation(summary = "Reset contention statistics", description = "Accessible by ADMIN only")
+    @DeleteMapping("/contention")
+    public ResponseEntity<Void> resetContentionStats() {
+        cardService.resetContentionStats();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Lists the cards whose stored balance differed from their ledger in the latest
+     * reconciliation run.
+     *
+     * @param limit maximum number of cards to return
+     * @return mismatches, largest difference first
+     */
+    @Operation(summary = "List balance mismatches",
+            description = "Cards whose balance differs from the ledger in the latest reconciliation (ADMIN only)")
+    @GetMapping("/balance-mismatches")
+    public ResponseEntity<List<BalanceMismatchDto>> getBalanceMismatches(
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(cardService.getBalanceMismatches(limit));
+    }
+
+    /**
+     * Blocks all active cards selected by ID or owner, e.g. after a compromise
+     * affecting many cards.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and blocked cards
+     */
+    @Operation(summary = "Block cards in bulk",
+            description = "Blocks the active cards among the given card IDs and the cards of the given owners (ADMIN only)")
+    @PostMapping("/bulk/block")
+    public ResponseEntity<BulkCardStatusResultDto> bulkBlockCards(@Valid @RequestBody BulkCardStatusRequest request) {
+        return ResponseEntity.ok(cardService.bulkBlockCards(request));
+    }
+
+    /**
+     * Activates all blocked cards selected by ID or owner.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and activated cards
+     */
+    @Operation(summary = "Activate cards in bulk",
+            description = "Activates the blocked cards among the given card IDs and the cards of the given owners (ADMIN only)")
+    @PostMapping("/bulk/activate")
+    public ResponseEntity<BulkCardStatusResultDto> bulkActivateCards(@Valid @RequestBody BulkCardStatusRequest request) {
+        return ResponseEntity.ok(cardService.bulkActivateCards(request));
+    }
+
+    /**
+     * Issues the cards of an uploaded NDJSON or CSV file, e.g. for a corporate client.
+     * The response is streamed as NDJSON: one line per rejected row and a progress line
+     * after every batch, the last one with {@code finished = true}.
+     *
+     * @param format NDJSON (default) or CSV
+     * @param body   uploaded rows with the fields of a card creation request
+     * @return streamed import report
+     * @throws IOException if the CSV header cannot be read
+     */
+    @Operation(summary = "Import cards",
+            description = "Creates cards from an NDJSON or CSV upload and streams progress and rejected rows (ADMIN only)")
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importCards(
+            @RequestParam(defaultValue = "NDJSON") CardImportFormat format,
+            InputStream body) throws IOException {
+        CardImport cardImport = importService.importCards(format, body);
+        StreamingResponseBody report = cardImport::writeTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CardImportFormat.NDJSON.getContentType()))
+                .body(report);
+    }
+}
@@ -1,12 +1,21 @@
 package com.annasozonova.bank.controller;
 
+import com.annasozonova.bank.dto.BatchTransferRequest;
 import com.annasozonova.bank.dto.CardDto;
+import com.annasozonova.bank.dto.CardSliceDto;
+import com.annasozonova.bank.dto.CardStatsDto;
 import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.dto.StatsPeriod;
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionHistoryDto;
 import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.dto.TransferResultDto;
+import com.annasozonova.bank.exception.BusinessException;
 import com.annasozonova.bank.exception.ForbiddenOperationException;
 import com.annasozonova.bank.model.CardStatus;
 import com.annasozonova.bank.security.UserPrincipal;
 import com.annasozonova.bank.service.CardService;
+import com.annasozonova.bank.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,12 +24,16 @@ import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,10 +46,13 @@ import java.util.UUID;
 @Tag(name = "Cards", description = "Operations related to bank cards")
 public class CardController {
     private final CardService cardService;
+    private final TransactionService transactionService;
 
     @Autowired
-    public CardController(final CardService cardService) {
+    public CardController(final CardService cardService,
+                          final TransactionService transactionService) {
         this.cardService = cardService;
+        this.transactionService = transactionService;
     }
 
     /**
@@ -48,7 +64,7 @@ public class CardController {
     @Operation(summary = "Create a new card",
             description = "Accessible by ADMIN only")
     @PostMapping
-    public ResponseEntity<CardDto> createCard(@RequestBody CreateCardRequest createCardRequest) {
+    public ResponseEntity<CardDto> createCard(@Valid @RequestBody CreateCardRequest createCardRequest) {
         CardDto cardDto = cardService.createCard(createCardRequest);
         return ResponseEntity.ok(cardDto);
     }
@@ -70,7 +86,8 @@ public class CardController {
      * Lists cards with optional filtering and pagination.
      * Admins see all cards; users see only their own.
      *
-     * @param maskedNumber optional masked card number filter
+     * @param maskedNumber optional card number filter, matched by its last four digits, or as part
+     *                     of the card mask if it has fewer than four digits
      * @param status       optional card status filter
      * @param pageable     pagination parameters
      * @param principal    currently authenticated user
@@ -96,6 +113,115 @@ public class CardController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Lists cards newest first using cursor-based paging, without a total count.
+     * Admins see all cards; users see only their own.
+     *
+     * @param maskedNumber optional card number filter, matched by its last four digits, or as part
+     *                     of the card mask if it has fewer than four digits
+     * @param status       optional card status filter
+     * @param cursor       cursor returned with the previous slice; omit for the first slice
+     * @param size         maximum number of cards per slice (1–100)
+     * @param principal    currently authenticated user
+     * @return slice of card data with the cursor for the next slice
+     */
+    @Operation(summary = "List cards with filtering and cursor paging",
+            description = "ADMIN: view all cards; USER: view only own cards. Paged with an opaque cursor")
+    @GetMapping("/slice")
+    public ResponseEntity<CardSliceDto> listCardsSlice(
+            @RequestParam(required = false) String maskedNumber,
+            @RequestParam(required = false) CardStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        CardSliceDto result = isAdmin
+                ? cardService.getAllCardsSlice(cursor, size)
+                : cardService.getUserCardsSlice(principal.getId(), maskedNumber, status, cursor, size);
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Returns the transaction history of a card, newest first, using cursor-based paging.
+     * Admins can read any card; users only their own.
+     *
+     * @param id        card ID
+     * @param cursor    cursor returned with the previous page; omit for the first page
+     * @param size      maximum number of transactions per page (1–100)
+     * @param principal currently authenticated user
+     * @return page of transactions with the cursor for the next page
+     */
+    @Operation(summary = "Get card transaction history",
+            description = "ADMIN: any card; USER: only own cards. Paged with an opaque cursor")
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<TransactionHistoryDto> getCardTransactions(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        if (principal == null) {
+            throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
+        }
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        TransactionHistoryDto result = isAdmin
+                ? transactionService.getCardHistory(id, cursor, size)
+                : transactionService.getUserCardHistory(principal.getId(), id, cursor, size);
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Returns daily transfer totals of a card, e.g. for spending charts.
+     * Admins can read any card; users only their own.
+     *
+     * @param id        card ID
+     * @param from      first day, inclusive
+     * @param to        last day, inclusive (at most 366 days after {@code from})
+     * @param principal currently authenticated user
+     * @return totals of every day with transfers, oldest first
+     */
+    @Operation(summary = "Get daily card statistics",
+            description = "ADMIN: any card; USER: only own cards. Days without transfers are omitted")
+    @GetMapping("/{id}/stats/daily")
+    public ResponseEntity<List<CardStatsDto>> getDailyStats(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        return ResponseEntity.ok(readStats(id, StatsPeriod.DAY, from, to, principal));
+    }
+
+    /**
+     * Returns monthly transfer totals of a card, e.g. for spend summaries.
+     * Admins can read any card; users only their own.
+     *
+     * @param id        card ID
+     * @param from      any day of the first month
+     * @param to        last day, inclusive (at most 120 months)
+     * @param principal currently authenticated user
+     * @return totals of every month with transfers, oldest first
+     */
+    @Operation(summary = "Get monthly card statistics",
+            description = "ADMIN: any card; USER: only own cards. Months without transfers are omitted")
+    @GetMapping("/{id}/stats/monthly")
+    public ResponseEntity<List<CardStatsDto>> getMonthlyStats(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        return ResponseEntity.ok(readStats(id, StatsPeriod.MONTH, from, to, principal));
+    }
+
     /**
      * Updates card details by ID. Accessible to administrators only.
      *
@@ -107,7 +233,7 @@ public class CardController {
     @PutMapping("/{id}")
     public ResponseEntity<CardDto> updateCard(
             @PathVariable UUID id,
-            @RequestBody CreateCardRequest req) {
+            @Valid @RequestBody CreateCardRequest req) {
         return ResponseEntity.ok(cardService.updateCard(id, req));
     }
 
@@ -126,17 +252,26 @@ public class CardController {
 
     /**
      * Transfers funds between two cards owned by the same user.
+     * With an {@code Idempotency-Key} header, repeating the request (e.g. after a timeout)
+     * returns the original outcome instead of transferring again.
+     * With {@code async=true} the transfer is only accepted and applied in the background;
+     * its outcome can be polled at {@code /api/cards/transfer/{transferId}}.
      *
-     * @param request   transfer request with source, destination and amount
-     * @param principal current authenticated user
-     * @return 200 OK if transfer is successful
+     * @param request        transfer request with source, destination and amount
+     * @param idempotencyKey optional client-generated key identifying this transfer
+     * @param async          whether to queue the transfer instead of applying it immediately
+     * @param principal      current authenticated user
+     * @return 200 OK if transfer is successful, or 202 Accepted with the pending transfer if queued
      */
     @Operation(summary = "Transfer funds between own cards",
             description = "Accessible by USER only")
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/transfer")
-    public ResponseEntity<Void> transfer(@Valid @RequestBody TransferRequest request,
-                                         @AuthenticationPrincipal UserPrincipal principal) {
+    public ResponseEntity<TransactionDto> transfer(@Valid @RequestBody TransferRequest request,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false)
+                                                   String idempotencyKey,
+                                                   @RequestParam(defaultValue = "false") boolean async,
+                                                   @AuthenticationPrincipal UserPrincipal principal) {
         if (principal == null) {
             throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
         }
@@ -148,10 +283,80 @@ public class CardController {
             throw new ForbiddenOperationException("Admins are not allowed to transfer funds");
         }
 
-        cardService.transferFunds(request);
+        if (async) {
+            if (idempotencyKey != null) {
+                throw new BusinessException("Idempotency-Key is not supported for asynchronous transfers");
+            }
+            TransactionDto pending = cardService.submitTransfer(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/cards/transfer/" + pending.getId()))
+                    .body(pending);
+        }
+
+        if (idempotencyKey != null) {
+            cardService.transferFundsIdempotent(principal.getId(), idempotencyKey, request);
+        } else {
+            cardService.transferFunds(request);
+        }
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Returns the current state of a transfer, e.g. one submitted with {@code async=true}.
+     * Admins can read any transfer; users only transfers from their own cards.
+     *
+     * @param transferId transfer (transaction) ID
+     * @param principal  currently authenticated user
+     * @return transfer with its status: {@code PENDING}, {@code COMPLETED} or {@code FAILED}
+     */
+    @Operation(summary = "Get transfer status",
+            description = "ADMIN: any transfer; USER: only transfers from own cards")
+    @GetMapping("/transfer/{transferId}")
+    public ResponseEntity<TransactionDto> getTransfer(@PathVariable UUID transferId,
+                                                      @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
+        }
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        TransactionDto result = isAdmin
+                ? transactionService.getTransaction(transferId)
+                : transactionService.getUserTransaction(principal.getId(), transferId);
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Applies a batch of transfers between the current user's own cards.
+     * Each transfer succeeds or is rejected independently; the response lists
+     * the outcome of every item in request order.
+     *
+     * @param request   batch of transfers
+     * @param principal current authenticated user
+     * @return per-transfer results
+     */
+    @Operation(summary = "Transfer funds between own cards in a batch",
+            description = "Accessible by USER only")
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<List<TransferResultDto>> transferBatch(@Valid @RequestBody BatchTransferRequest request,
+                                                                 @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
+        }
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        if (isAdmin) {
+            throw new ForbiddenOperationException("Admins are not allowed to transfer funds");
+        }
+
+        return ResponseEntity.ok(cardService.transferFundsBatch(principal.getId(), request.getTransfers()));
+    }
+
     /**
      * Requests blocking of a user's own card.
      *
@@ -172,4 +377,18 @@ public class CardController {
         cardService.requestBlockCard(principal.getId(), id);
         return ResponseEntity.noContent().build();
     }
+
+    private List<CardStatsDto> readStats(UUID cardId, StatsPeriod period, LocalDate from, LocalDate to,
+                                         UserPrincipal principal) {
+        if (principal == null) {
+            throw new AuthenticationCredentialsNotFoundException("User is not authenticated");
+        }
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        return isAdmin
+                ? transactionService.getCardStats(cardId, period, from, to)
+                : transactionService.getUserCardStats(principal.getId(), cardId, period, from, to);
+    }
 }
@@ -0,0 +1,81 @@
+package com.annasozonova.bank.controller;
+
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.annasozonova.bank.service.TransactionExport;
+import com.annasozonova.bank.service.TransactionExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+/**
+ * Controller for full transaction dumps used by administrators and auditors.
+ * Accessible to administrators only.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Transaction export", description = "Streaming transaction dumps (ADMIN only)")
+@PreAuthorize("hasRole('ADMIN')")
+public class TransactionExportController {
+
+    private final TransactionExportService exportService;
+
+    @Autowired
+    public TransactionExportController(TransactionExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Streams all transactions sent or received by a card, oldest first.
+     *
+     * @param cardId card ID
+     * @param format NDJSON (default) or CSV
+     * @return streamed export
+     */
+    @Operation(summary = "Export card transactions",
+            description = "Streams every transaction of the card as NDJSON or CSV (ADMIN only)")
+    @GetMapping("/cards/{cardId}/transactions")
+    public ResponseEntity<StreamingResponseBody> exportCardTransactions(
+            @PathVariable UUID cardId,
+            @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format) {
+        return stream(exportService.exportCardTransactions(cardId, format), "card-" + cardId, format);
+    }
+
+    /**
+     * Streams all transactions of any card owned by a user, oldest first.
+     *
+     * @param userId user ID
+     * @param format NDJSON (default) or CSV
+     * @return streamed export
+     */
+    @Operation(summary = "Export user transactions",
+            description = "Streams every transaction of the user's cards as NDJSON or CSV (ADMIN only)")
+    @GetMapping("/users/{userId}/transactions")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format) {
+        return stream(exportService.exportUserTransactions(userId, format), "user-" + userId, format);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(TransactionExport export, String name,
+                                                               TransactionExportFormat format) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "-transactions." + format.getFileExtension())
+                .build();
+        StreamingResponseBody body = export::writeTo;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,44 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A card whose stored balance does not match its ledger.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Card whose stored balance differs from the sum of its ledger postings")
+public class BalanceMismatchDto {
+
+    /**
+     * ID of the card.
+     */
+    @Schema(description = "UUID of the card", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID cardId;
+
+    /**
+     * Balance stored on the card row.
+     */
+    @Schema(description = "Balance stored on the card", example = "150.00")
+    private BigDecimal storedBalance;
+
+    /**
+     * Opening balance plus all completed transfers of the card.
+     */
+    @Schema(description = "Balance computed from the ledger", example = "100.00")
+    private BigDecimal ledgerBalance;
+
+    /**
+     * When the reconciliation job found the difference.
+     */
+    @Schema(description = "When the mismatch was detected", example = "2025-05-01T02:30:00Z")
+    private OffsetDateTime detectedAt;
+}
@@ -0,0 +1,31 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request payload for applying many transfers between the user's own cards at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request payload for a batch of transfers between own cards")
+public class BatchTransferRequest {
+
+    /**
+     * Transfers to apply, in order. Each one is validated and applied independently.
+     */
+    @ArraySchema(schema = @Schema(implementation = TransferRequest.class),
+            arraySchema = @Schema(description = "Transfers to apply, in order (1–1000 items)"))
+    @NotEmpty(message = "At least one transfer must be provided")
+    @Size(max = 1000, message = "A batch may contain at most 1000 transfers")
+    private List<@Valid TransferRequest> transfers;
+}
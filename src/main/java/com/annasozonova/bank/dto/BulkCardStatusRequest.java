@@ -0,0 +1,39 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request payload for changing the status of many cards at once.
+ * Cards are selected by ID, by owner, or both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cards selected by ID and/or owner for a bulk status change")
+public class BulkCardStatusRequest {
+
+    /**
+     * IDs of the cards to change.
+     */
+    @ArraySchema(schema = @Schema(type = "string", format = "uuid"),
+            arraySchema = @Schema(description = "Card IDs (at most 100000)"))
+    @Size(max = 100_000, message = "At most 100000 card IDs may be given")
+    private List<@NotNull UUID> cardIds;
+
+    /**
+     * IDs of users whose cards should all be changed.
+     */
+    @ArraySchema(schema = @Schema(type = "string", format = "uuid"),
+            arraySchema = @Schema(description = "Owner IDs; all their cards are selected (at most 1000)"))
+    @Size(max = 1000, message = "At most 1000 owner IDs may be given")
+    private List<@NotNull UUID> ownerIds;
+}
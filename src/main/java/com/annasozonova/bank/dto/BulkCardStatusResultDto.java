@@ -0,0 +1,28 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk card status change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of selected and changed cards of a bulk status change")
+public class BulkCardStatusResultDto {
+
+    /**
+     * Distinct cards selected by the request, including unknown IDs.
+     */
+    @Schema(description = "Distinct cards selected by IDs and owners", example = "1200")
+    private int selected;
+
+    /**
+     * Cards whose status was changed; the others already had the target status or another one.
+     */
+    @Schema(description = "Cards whose status was changed", example = "1180")
+    private int updated;
+}
@@ -0,0 +1,54 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Contention statistics of one card, as tracked by the hot-card detector.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Contention statistics of a frequently contended card")
+public class CardContentionDto {
+
+    /**
+     * ID of the card.
+     */
+    @Schema(description = "UUID of the card", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID cardId;
+
+    /**
+     * Total time spent waiting for the card's row lock or lost to conflicts on it.
+     */
+    @Schema(description = "Total lock wait and conflict time in milliseconds", example = "1520")
+    private long contendedMs;
+
+    /**
+     * Upper bound of how much of {@link #contendedMs} may belong to cards evicted from tracking.
+     */
+    @Schema(description = "Maximum overestimate of contendedMs in milliseconds", example = "0")
+    private long errorMs;
+
+    /**
+     * Longest single wait recorded for the card.
+     */
+    @Schema(description = "Longest single lock wait in milliseconds", example = "340")
+    private long maxWaitMs;
+
+    /**
+     * Number of recorded lock waits.
+     */
+    @Schema(description = "Number of recorded lock waits", example = "42")
+    private long waits;
+
+    /**
+     * Number of lock timeouts, deadlocks and version conflicts.
+     */
+    @Schema(description = "Number of lock timeouts, deadlocks and version conflicts", example = "3")
+    private long conflicts;
+}
@@ -0,0 +1,28 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An input row of a card import that was not imported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Row of a card import that was rejected")
+public class CardImportErrorDto {
+
+    /**
+     * Line number of the row in the uploaded file, starting at 1.
+     */
+    @Schema(description = "Line number in the uploaded file", example = "17")
+    private long line;
+
+    /**
+     * Reason the row was rejected.
+     */
+    @Schema(description = "Reason the row was rejected", example = "Card number must be 16 digits")
+    private String error;
+}
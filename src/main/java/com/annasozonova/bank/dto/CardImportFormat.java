@@ -0,0 +1,29 @@
+package com.annasozonova.bank.dto;
+
+/**
+ * Input format of a card import. Both formats carry the fields of
+ * {@link CreateCardRequest}: {@code userId}, {@code number}, {@code expiryDate} and
+ * {@code initialBalance}.
+ */
+public enum CardImportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson"),
+
+    /**
+     * Comma-separated values with a header row naming the columns.
+     */
+    CSV("text/csv");
+
+    private final String contentType;
+
+    CardImportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
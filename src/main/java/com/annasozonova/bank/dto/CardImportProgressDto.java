@@ -0,0 +1,40 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of a card import, reported after every batch and once at the end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progress of a card import")
+public class CardImportProgressDto {
+
+    /**
+     * Rows read so far.
+     */
+    @Schema(description = "Rows read so far", example = "5000")
+    private long processed;
+
+    /**
+     * Cards created so far.
+     */
+    @Schema(description = "Cards created so far", example = "4990")
+    private long imported;
+
+    /**
+     * Rows rejected so far.
+     */
+    @Schema(description = "Rows rejected so far", example = "10")
+    private long failed;
+
+    /**
+     * Whether the whole input has been read.
+     */
+    @Schema(description = "True on the last line of the response", example = "false")
+    private boolean finished;
+}
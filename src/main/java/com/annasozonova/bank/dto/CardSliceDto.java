@@ -0,0 +1,37 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a card listing, navigated with an opaque cursor and without a total count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Slice of cards with keyset cursor")
+public class CardSliceDto {
+
+    /**
+     * Cards in this slice, newest first.
+     */
+    @Schema(description = "Cards in this slice, newest first")
+    private List<CardDto> content;
+
+    /**
+     * Cursor to request the next (older) slice; absent on the last slice.
+     */
+    @Schema(description = "Cursor for the next slice; null on the last slice",
+            example = "AAYDf2x8Q4BVDoQA4ptBpFVEQAAAAAAA")
+    private String nextCursor;
+
+    /**
+     * Indicates whether older cards exist.
+     */
+    @Schema(description = "Whether more cards are available", example = "true")
+    private boolean hasNext;
+}
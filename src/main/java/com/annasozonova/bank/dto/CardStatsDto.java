@@ -0,0 +1,49 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Completed transfers of a card within one day or month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Transfer totals of a card for one day or month")
+public class CardStatsDto {
+
+    /**
+     * First day of the period (UTC).
+     */
+    @Schema(description = "First day of the period (UTC)", example = "2025-05-01")
+    private LocalDate periodStart;
+
+    /**
+     * Number of transfers sent or received in the period.
+     */
+    @Schema(description = "Number of transfers sent or received", example = "42")
+    private long transferCount;
+
+    /**
+     * Sum of incoming transfers.
+     */
+    @Schema(description = "Total received", example = "1200.00")
+    private BigDecimal totalIn;
+
+    /**
+     * Sum of outgoing transfers.
+     */
+    @Schema(description = "Total spent", example = "830.50")
+    private BigDecimal totalOut;
+
+    /**
+     * Largest single transfer in either direction.
+     */
+    @Schema(description = "Largest single transfer", example = "500.00")
+    private BigDecimal maxTransfer;
+}
@@ -1,6 +1,7 @@
 package com.annasozonova.bank.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -53,5 +54,6 @@ public class CreateCardRequest {
     @Schema(description = "Initial balance for the card",
             example = "100.00")
     @NotNull(message = "Initial balance must be provided")
+    @Digits(integer = 16, fraction = 2, message = "Initial balance must have at most 2 decimal places")
     private BigDecimal initialBalance;
 }
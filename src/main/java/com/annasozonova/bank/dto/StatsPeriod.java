@@ -0,0 +1,9 @@
+package com.annasozonova.bank.dto;
+
+/**
+ * Length of the periods card statistics are grouped by.
+ */
+public enum StatsPeriod {
+    DAY,
+    MONTH
+}
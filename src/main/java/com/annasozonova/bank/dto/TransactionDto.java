@@ -0,0 +1,66 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object representing a single funds transfer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for a funds transfer")
+public class TransactionDto {
+
+    /**
+     * Unique identifier of the transaction.
+     */
+    @Schema(description = "Unique identifier of the transaction",
+            example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID id;
+
+    /**
+     * Identifier of the source card.
+     */
+    @Schema(description = "UUID of the source card",
+            example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID fromCardId;
+
+    /**
+     * Identifier of the target card.
+     */
+    @Schema(description = "UUID of the target card",
+            example = "660e8400-e29b-41d4-a716-446655440111")
+    private UUID toCardId;
+
+    /**
+     * Transferred amount.
+     */
+    @Schema(description = "Transferred amount", example = "50.00")
+    private BigDecimal amount;
+
+    /**
+     * Timestamp of the transfer.
+     */
+    @Schema(description = "Timestamp of the transfer", example = "2025-05-01T12:30:00Z")
+    private OffsetDateTime transferDate;
+
+    /**
+     * Status of the transfer: PENDING, COMPLETED or FAILED.
+     */
+    @Schema(description = "Status of the transfer: PENDING, COMPLETED or FAILED",
+            example = "COMPLETED")
+    private String status;
+
+    /**
+     * Optional description of the transfer.
+     */
+    @Schema(description = "Optional description of the transfer")
+    private String description;
+}
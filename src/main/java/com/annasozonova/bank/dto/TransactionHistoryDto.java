@@ -0,0 +1,37 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a card's transaction history, navigated with an opaque cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of card transaction history with keyset cursor")
+public class TransactionHistoryDto {
+
+    /**
+     * Transactions on this page, newest first.
+     */
+    @Schema(description = "Transactions on this page, newest first")
+    private List<TransactionDto> content;
+
+    /**
+     * Cursor to request the next (older) page; absent on the last page.
+     */
+    @Schema(description = "Cursor for the next page; null on the last page",
+            example = "AAYDf2x8Q4BVDoQA4ptBpFVEQAAAAAAA")
+    private String nextCursor;
+
+    /**
+     * Indicates whether older transactions exist.
+     */
+    @Schema(description = "Whether more transactions are available", example = "true")
+    private boolean hasNext;
+}
@@ -1,6 +1,7 @@
 package com.annasozonova.bank.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -42,5 +43,6 @@ public class TransferRequest {
             example = "50.00")
     @NotNull(message = "Transfer amount must be provided")
     @Positive(message = "Transfer amount must be positive")
+    @Digits(integer = 16, fraction = 2, message = "Transfer amount must have at most 2 decimal places")
     private BigDecimal amount;
 }
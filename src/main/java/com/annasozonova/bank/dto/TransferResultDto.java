@@ -0,0 +1,43 @@
+package com.annasozonova.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single transfer within a batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a single transfer within a batch")
+public class TransferResultDto {
+
+    /**
+     * Position of the transfer in the request list (0-based).
+     */
+    @Schema(description = "Position of the transfer in the request (0-based)", example = "0")
+    private int index;
+
+    /**
+     * Outcome: COMPLETED or REJECTED.
+     */
+    @Schema(description = "Outcome of the transfer: COMPLETED or REJECTED", example = "COMPLETED")
+    private String status;
+
+    /**
+     * Ledger transaction ID for a completed transfer.
+     */
+    @Schema(description = "Transaction ID of a completed transfer",
+            example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID transactionId;
+
+    /**
+     * Reason of rejection for a rejected transfer.
+     */
+    @Schema(description = "Reason of rejection", example = "Insufficient funds on source card")
+    private String message;
+}
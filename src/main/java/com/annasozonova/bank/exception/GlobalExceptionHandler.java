@@ -1,6 +1,7 @@
 package com.annasozonova.bank.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
@@ -115,6 +116,27 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Handles concurrent modifications that could not be resolved by retrying (409).
+     *
+     * @param ex      optimistic or pessimistic locking failure
+     * @param request current HTTP request
+     * @return 409 Conflict
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrencyFailure(
+            ConcurrencyFailureException ex,
+            HttpServletRequest request) {
+        return ErrorResponse.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message("The card was modified concurrently, please retry")
+                .path(request.getRequestURI())
+                .build();
+    }
+
     /**
      * Handles authentication-related errors (401).
      *
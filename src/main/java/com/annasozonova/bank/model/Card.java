@@ -1,7 +1,6 @@
 package com.annasozonova.bank.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -10,7 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -46,10 +44,18 @@ public class Card {
      */
     @NotNull
     @Size(min = 19, max = 19)
-    @Pattern(regexp = "\\*{4} \\*{4} \\*{4} \\*\\d{4}")
+    @Pattern(regexp = "\\*{4} \\*{4} \\*{4} \\d{4}")
     @Column(name = "card_mask", nullable = false, unique = true, length = 19)
     private String cardMask;
 
+    /**
+     * Last four digits of the card number, indexed together with the owner for card search.
+     */
+    @NotNull
+    @Pattern(regexp = "\\d{4}")
+    @Column(nullable = false, length = 4)
+    private String last4;
+
     /**
      * Owner of the card.
      */
@@ -74,12 +80,24 @@ public class Card {
     private CardStatus status;
 
     /**
-     * Current balance of the card. Must be a non-negative amount.
+     * Current balance of the card. Must be a non-negative amount
+     * (enforced by {@code chk_cards_balance_nonnegative}).
+     * <p>
+     * Cached value of the card's postings in the ledger, updated in the same
+     * transaction as the postings; the ledger is the record of truth.
+     * </p>
      */
     @NotNull
-    @DecimalMin("0.00")
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
+
+    /**
+     * Optimistic locking version, incremented by Hibernate on every update.
+     * A stale card cannot overwrite a concurrent change.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     /**
      * Timestamp indicating when the card was created.
@@ -0,0 +1,67 @@
+package com.annasozonova.bank.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entity recording an {@code Idempotency-Key} of a transfer that has been applied.
+ * A row is written in the same transaction as the transfer itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    /**
+     * Composite identifier: user and client-supplied key.
+     */
+    @EmbeddedId
+    private Id id;
+
+    /**
+     * SHA-256 fingerprint of the request payload.
+     */
+    @NotNull
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * Timestamp when the key was first used.
+     */
+    @NotNull
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    /**
+     * Composite primary key of {@link IdempotencyKey}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Id implements Serializable {
+
+        /**
+         * User that sent the request.
+         */
+        @Column(name = "user_id", nullable = false)
+        private UUID userId;
+
+        /**
+         * Client-supplied idempotency key.
+         */
+        @Column(name = "idempotency_key", nullable = false, length = 100)
+        private String key;
+    }
+}
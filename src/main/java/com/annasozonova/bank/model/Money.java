@@ -0,0 +1,89 @@
+package com.annasozonova.bank.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money held as a {@code long} number of minor units (cents).
+ * <p>
+ * Used for card balances and transfer amounts inside the service layer, where
+ * comparisons and arithmetic on a primitive avoid the allocations of
+ * {@link BigDecimal}. Conversion to and from {@code BigDecimal} happens only at the
+ * edges: the {@code NUMERIC(19,2)} columns (see {@link MoneyConverter}) and the DTOs.
+ * Arithmetic fails with {@link ArithmeticException} on overflow.
+ * </p>
+ *
+ * @param minorUnits amount in cents
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    /**
+     * Number of decimal places of the major unit.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Zero amount.
+     */
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Converts a decimal amount with at most {@link #SCALE} fraction digits.
+     *
+     * @param amount decimal amount
+     * @return money of the same value
+     * @throws ArithmeticException if the amount has more fraction digits or does not fit into a {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @param other amount to add
+     * @return sum of both amounts
+     */
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Subtracts an amount from this one.
+     *
+     * @param other amount to subtract
+     * @return difference of both amounts
+     */
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Compares two amounts without allocating.
+     *
+     * @param other amount to compare with
+     * @return {@code true} if this amount is strictly smaller
+     */
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    /**
+     * Converts the amount back to a decimal, e.g. for a DTO.
+     *
+     * @return the amount as a decimal with scale {@link #SCALE}
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
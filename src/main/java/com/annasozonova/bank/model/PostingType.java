@@ -0,0 +1,22 @@
+package com.annasozonova.bank.model;
+
+/**
+ * Enum representing kinds of ledger postings.
+ */
+public enum PostingType {
+
+    /**
+     * Funds leaving a card; the posting amount is negative.
+     */
+    DEBIT,
+
+    /**
+     * Funds arriving on a card.
+     */
+    CREDIT,
+
+    /**
+     * Balance a card started with, e.g. its initial balance.
+     */
+    OPENING
+}
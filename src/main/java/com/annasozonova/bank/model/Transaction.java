@@ -1,15 +1,14 @@
 package com.annasozonova.bank.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 /**
@@ -53,9 +52,8 @@ public class Transaction {
      * Amount of money transferred. Must be a positive value.
      */
     @NotNull(message = "Transfer amount must be provided")
-    @DecimalMin(value = "0.00", message = "Transfer amount must be positive")
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     /**
      * Timestamp when the transfer occurred.
@@ -69,8 +67,9 @@ public class Transaction {
      * Status of the transaction (e.g., COMPLETED, FAILED).
      */
     @NotNull
+    @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 50)
-    private String status;
+    private TransactionStatus status;
 
     /**
      * Optional description of the transaction.
@@ -80,9 +79,11 @@ public class Transaction {
 
     /**
      * Automatically sets the transfer timestamp before persisting.
+     * Truncated to microseconds, the precision of the column, so keyset cursors
+     * built from a loaded row match the stored value exactly.
      */
     @PrePersist
     protected void onCreate() {
-        this.transferDate = OffsetDateTime.now();
+        this.transferDate = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
\ No newline at end of file
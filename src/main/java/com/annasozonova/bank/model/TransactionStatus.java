@@ -0,0 +1,22 @@
+package com.annasozonova.bank.model;
+
+/**
+ * Enum representing possible statuses of a funds transfer.
+ */
+public enum TransactionStatus {
+
+    /**
+     * Transfer has been accepted but not applied yet.
+     */
+    PENDING,
+
+    /**
+     * Transfer has been applied to both cards.
+     */
+    COMPLETED,
+
+    /**
+     * Transfer was rejected and no balances were changed.
+     */
+    FAILED
+}
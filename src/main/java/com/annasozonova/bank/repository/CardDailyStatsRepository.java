@@ -0,0 +1,120 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.dto.CardStatsDto;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.util.UuidOrdering;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Repository for per-card daily transfer aggregates in {@code card_daily_stats}.
+ * <p>
+ * Aggregates are updated in the transaction that completes the transfers, while both
+ * cards of every transfer are locked, so concurrent updates of one card's row cannot
+ * interleave and the totals always match the completed transfers. Summaries read a
+ * handful of rows per card instead of scanning {@code transactions}.
+ * </p>
+ */
+@Repository
+public class CardDailyStatsRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO card_daily_stats (card_id, stat_date, transfer_count, total_in, total_out, max_transfer) " +
+            "VALUES (?, (now() AT TIME ZONE 'UTC')::date, ?, ?, ?, ?) " +
+            "ON CONFLICT (card_id, stat_date) DO UPDATE SET " +
+            "transfer_count = card_daily_stats.transfer_count + EXCLUDED.transfer_count, " +
+            "total_in = card_daily_stats.total_in + EXCLUDED.total_in, " +
+            "total_out = card_daily_stats.total_out + EXCLUDED.total_out, " +
+            "max_transfer = GREATEST(card_daily_stats.max_transfer, EXCLUDED.max_transfer)";
+
+    private static final String DAILY =
+            "SELECT stat_date, transfer_count, total_in, total_out, max_transfer " +
+            "FROM card_daily_stats WHERE card_id = ? AND stat_date BETWEEN ? AND ? " +
+            "ORDER BY stat_date";
+
+    private static final String MONTHLY =
+            "SELECT date_trunc('month', stat_date)::date, SUM(transfer_count), SUM(total_in), " +
+            "SUM(total_out), MAX(max_transfer) " +
+            "FROM card_daily_stats WHERE card_id = ? AND stat_date BETWEEN ? AND ? " +
+            "GROUP BY 1 ORDER BY 1";
+
+    private static final RowMapper<CardStatsDto> STATS = (rs, rowNum) -> new CardStatsDto(
+            rs.getObject(1, LocalDate.class),
+            rs.getLong(2),
+            rs.getBigDecimal(3),
+            rs.getBigDecimal(4),
+            rs.getBigDecimal(5));
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Today's change of one card's aggregates.
+     */
+    private record Delta(long count, Money in, Money out, Money max) {
+
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, in.plus(other.in), out.plus(other.out),
+                    max.isLessThan(other.max) ? other.max : max);
+        }
+    }
+
+    @Autowired
+    public CardDailyStatsRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Adds completed transfers to today's aggregates of their source and target cards.
+     * Transfers are first combined per card, so every card row is written once.
+     *
+     * @param transfers completed transfers
+     */
+    public void recordTransfers(List<LedgerRepository.TransferPosting> transfers) {
+        Map<UUID, Delta> deltas = new TreeMap<>(UuidOrdering.POSTGRES_ORDER);
+        for (LedgerRepository.TransferPosting t : transfers) {
+            deltas.merge(t.fromCardId(), new Delta(1, Money.ZERO, t.amount(), t.amount()), Delta::plus);
+            deltas.merge(t.toCardId(), new Delta(1, t.amount(), Money.ZERO, t.amount()), Delta::plus);
+        }
+        List<Map.Entry<UUID, Delta>> rows = List.copyOf(deltas.entrySet());
+        jdbc.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            Delta d = row.getValue();
+            ps.setObject(1, row.getKey());
+            ps.setLong(2, d.count());
+            ps.setBigDecimal(3, d.in().toBigDecimal());
+            ps.setBigDecimal(4, d.out().toBigDecimal());
+            ps.setBigDecimal(5, d.max().toBigDecimal());
+        });
+    }
+
+    /**
+     * Returns the daily aggregates of a card. Days without transfers are omitted.
+     *
+     * @param cardId ID of the card
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return one entry per day with transfers, oldest first
+     */
+    public List<CardStatsDto> findDaily(UUID cardId, LocalDate from, LocalDate to) {
+        return jdbc.query(DAILY, STATS, cardId, from, to);
+    }
+
+    /**
+     * Returns the monthly aggregates of a card. Months without transfers are omitted.
+     *
+     * @param cardId ID of the card
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return one entry per month with transfers, oldest first
+     */
+    public List<CardStatsDto> findMonthly(UUID cardId, LocalDate from, LocalDate to) {
+        return jdbc.query(MONTHLY, STATS, cardId, from, to);
+    }
+}
@@ -0,0 +1,79 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched reads and writes of the card import.
+ * <p>
+ * Owners are looked up with one array-bound query per batch, and cards are written with
+ * JDBC batches, which the driver rewrites into multi-row inserts
+ * ({@code reWriteBatchedInserts}).
+ * </p>
+ */
+@Repository
+public class CardImportRepository {
+
+    private static final String INSERT_CARD =
+            "INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+            "status, balance, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE'::card_status, ?, 0, now(), now())";
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * A card ready to be inserted: number already encrypted and masked.
+     *
+     * @param id             new card ID
+     * @param ownerId        ID of the owner
+     * @param cardNumberEnc  encrypted card number
+     * @param cardMask       masked card number
+     * @param last4          last four digits
+     * @param expirationDate expiration date
+     * @param balance        initial balance
+     */
+    public record NewCard(UUID id, UUID ownerId, byte[] cardNumberEnc, String cardMask, String last4,
+                          LocalDate expirationDate, Money balance) {
+    }
+
+    @Autowired
+    public CardImportRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Returns which of the given users exist.
+     *
+     * @param userIds user IDs
+     * @return the existing ones
+     */
+    public Set<UUID> findExistingUsers(Collection<UUID> userIds) {
+        String[] ids = userIds.stream().map(UUID::toString).toArray(String[]::new);
+        return new HashSet<>(jdbc.queryForList("SELECT id FROM users WHERE id = ANY(?::uuid[])", UUID.class,
+                (Object) ids));
+    }
+
+    /**
+     * Inserts active cards in one batch.
+     *
+     * @param cards new cards
+     */
+    public void insertCards(List<NewCard> cards) {
+        List<Object[]> rows = new ArrayList<>(cards.size());
+        for (NewCard card : cards) {
+            rows.add(new Object[]{card.id(), card.cardNumberEnc(), card.cardMask(), card.last4(), card.ownerId(),
+                    card.expirationDate(), card.balance().toBigDecimal()});
+        }
+        jdbc.batchUpdate(INSERT_CARD, rows);
+    }
+}
@@ -0,0 +1,106 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Card reads and changes that only the card owner may make, each checked and applied in one statement.
+ * <p>
+ * The statements look the card up by primary key and compare its {@code owner_id}
+ * column directly, so neither the card entity nor its owner is loaded, and the result
+ * still tells a missing card apart from a card of another user.
+ * </p>
+ */
+@Repository
+public class CardOwnershipRepository {
+
+    /**
+     * Blocks the card if it belongs to the user and is not blocked yet, and reports
+     * whether the card exists and who owns it. The outer {@code SELECT} reads the row
+     * as it was before the update, which is enough as the owner never changes.
+     */
+    private static final String BLOCK_IF_OWNED =
+            "WITH blocked AS (" +
+            "  UPDATE cards SET status = 'BLOCKED', version = version + 1, updated_at = now() " +
+            "  WHERE id = ? AND owner_id = ? AND status <> 'BLOCKED' RETURNING id) " +
+            "SELECT owner_id = ?, EXISTS (SELECT 1 FROM blocked) FROM cards WHERE id = ?";
+
+    /**
+     * Reads the ledger balance of the card, as {@link LedgerRepository#currentBalance(UUID)}
+     * does, only if the card belongs to the user; another user's card yields a row with
+     * a {@code NULL} balance.
+     */
+    private static final String BALANCE_IF_OWNED =
+            "SELECT c.owner_id = ?, CASE WHEN c.owner_id = ? THEN COALESCE(s.balance, 0) + COALESCE((" +
+            "    SELECT SUM(p.amount) FROM postings p " +
+            "    WHERE p.card_id = c.id AND p.id > COALESCE(s.last_posting_id, 0)), 0) END " +
+            "FROM cards c LEFT JOIN card_balance_snapshots s ON s.card_id = c.id " +
+            "WHERE c.id = ?";
+
+    /**
+     * Outcome of {@link #blockIfOwned(UUID, UUID)}.
+     */
+    public enum BlockResult {
+        /** No card with the given ID. */
+        NOT_FOUND,
+        /** The card belongs to another user; nothing was changed. */
+        FORBIDDEN,
+        /** The card was blocked by this call. */
+        BLOCKED,
+        /** The card belongs to the user and was blocked already. */
+        ALREADY_BLOCKED
+    }
+
+    /**
+     * Outcome of {@link #balanceIfOwned(UUID, UUID)} for an existing card.
+     *
+     * @param owned   whether the card belongs to the user
+     * @param balance ledger balance, or {@code null} if the card belongs to another user
+     */
+    public record BalanceResult(boolean owned, Money balance) {
+    }
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public CardOwnershipRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Blocks a card on behalf of its owner.
+     *
+     * @param cardId  ID of the card
+     * @param ownerId ID of the requesting user
+     * @return what the statement found and did
+     */
+    public BlockResult blockIfOwned(UUID cardId, UUID ownerId) {
+        List<BlockResult> results = jdbc.query(BLOCK_IF_OWNED, (rs, rowNum) -> {
+            if (!rs.getBoolean(1)) {
+                return BlockResult.FORBIDDEN;
+            }
+            return rs.getBoolean(2) ? BlockResult.BLOCKED : BlockResult.ALREADY_BLOCKED;
+        }, cardId, ownerId, ownerId, cardId);
+        return results.isEmpty() ? BlockResult.NOT_FOUND : results.get(0);
+    }
+
+    /**
+     * Reads the balance of a card on behalf of its owner.
+     *
+     * @param cardId  ID of the card
+     * @param ownerId ID of the requesting user
+     * @return ownership and balance, or empty if the card does not exist
+     */
+    public Optional<BalanceResult> balanceIfOwned(UUID cardId, UUID ownerId) {
+        List<BalanceResult> results = jdbc.query(BALANCE_IF_OWNED, (rs, rowNum) -> rs.getBoolean(1)
+                ? new BalanceResult(true, Money.of(rs.getBigDecimal(2)))
+                : new BalanceResult(false, null), ownerId, ownerId, cardId);
+        return results.stream().findFirst();
+    }
+}
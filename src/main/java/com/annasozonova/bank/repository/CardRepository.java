@@ -2,50 +2,274 @@ package com.annasozonova.bank.repository;
 
 import com.annasozonova.bank.model.Card;
 import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository interface for CRUD operations on {@link Card} entities
- * and parameterized search by owner, mask, and status.
+ * and parameterized search by owner, last four digits, and status.
+ * <p>
+ * Owner searches are served by {@code idx_cards_owner_status} and
+ * {@code idx_cards_owner_last4}, except the mask pattern fallback. Listings return {@link CardSummary} projections
+ * instead of managed entities.
+ * </p>
  */
 @Repository
 public interface CardRepository extends JpaRepository<Card, UUID> {
 
+    /**
+     * Selects {@link CardSummary} projections of the cards aliased {@code c}.
+     */
+    String SUMMARY = "select new com.annasozonova.bank.repository.CardSummary(" +
+            "c.id, c.cardMask, c.expirationDate, c.status, c.balance, c.createdAt) from Card c ";
+
+    /**
+     * Retrieves a paginated list of all cards.
+     */
+    @Query(value = SUMMARY, countQuery = "select count(c) from Card c")
+    Page<CardSummary> findAllSummaries(Pageable pageable);
+
     /**
      * Retrieves a paginated list of cards owned by a specific user.
      */
-    Page<Card> findByOwner_Id(UUID ownerId, Pageable pageable);
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId")
+    Page<CardSummary> findSummariesByOwner(@Param("ownerId") UUID ownerId, Pageable pageable);
 
     /**
-     * Retrieves a paginated list of cards for a user, filtering by card mask (partial match, case-insensitive).
+     * Retrieves a paginated list of cards for a user, filtering by the last four digits of the card number.
      */
-    Page<Card> findByOwner_IdAndCardMaskContainingIgnoreCase(
-            UUID ownerId,
-            String cardMask,
-            Pageable pageable
-    );
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId and c.last4 = :last4",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId and c.last4 = :last4")
+    Page<CardSummary> findSummariesByOwnerAndLast4(@Param("ownerId") UUID ownerId,
+                                                   @Param("last4") String last4,
+                                                   Pageable pageable);
 
     /**
      * Retrieves a paginated list of cards for a user, filtering by status.
      */
-    Page<Card> findByOwner_IdAndStatus(
-            UUID ownerId,
-            CardStatus status,
-            Pageable pageable
-    );
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId and c.status = :status",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId and c.status = :status")
+    Page<CardSummary> findSummariesByOwnerAndStatus(@Param("ownerId") UUID ownerId,
+                                                    @Param("status") CardStatus status,
+                                                    Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of cards for a user, filtering by both last four digits and status.
+     */
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId and c.last4 = :last4 and c.status = :status",
+            countQuery = "select count(c) from Card c " +
+                    "where c.owner.id = :ownerId and c.last4 = :last4 and c.status = :status")
+    Page<CardSummary> findSummariesByOwnerAndLast4AndStatus(@Param("ownerId") UUID ownerId,
+                                                            @Param("last4") String last4,
+                                                            @Param("status") CardStatus status,
+                                                            Pageable pageable);
+
+    /**
+     * Retrieves a paginated list of cards for a user whose mask contains the given pattern,
+     * ignoring case. Fallback for filters with fewer than four digits; not index-backed.
+     */
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\'",
+            countQuery = "select count(c) from Card c " +
+                    "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\'")
+    Page<CardSummary> findSummariesByOwnerAndMaskLike(@Param("ownerId") UUID ownerId,
+                                                      @Param("mask") String mask,
+                                                      Pageable pageable);
+
+    /**
+     * Same as {@link #findSummariesByOwnerAndMaskLike(UUID, String, Pageable)}, also filtered by status.
+     */
+    @Query(value = SUMMARY + "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\' " +
+            "and c.status = :status",
+            countQuery = "select count(c) from Card c " +
+                    "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\' " +
+                    "and c.status = :status")
+    Page<CardSummary> findSummariesByOwnerAndMaskLikeAndStatus(@Param("ownerId") UUID ownerId,
+                                                               @Param("mask") String mask,
+                                                               @Param("status") CardStatus status,
+                                                               Pageable pageable);
+
+    /**
+     * Reads the snapshot of one card without loading the entity or its owner.
+     *
+     * @param id card ID
+     * @return optional containing the snapshot if the card exists
+     */
+    @Query("select new com.annasozonova.bank.repository.CardSnapshot(" +
+            "c.id, c.owner.id, c.cardMask, c.expirationDate, c.status, c.balance) from Card c where c.id = :id")
+    Optional<CardSnapshot> findSnapshot(@Param("id") UUID id);
+
+    /**
+     * Retrieves the newest cards created before the given keyset position,
+     * ordered by creation time and ID, newest first.
+     *
+     * @param createdAt creation time of the last card already returned
+     * @param id        ID of the last card already returned
+     * @param limit     maximum number of rows
+     * @return cards older than the position
+     */
+    @Query(SUMMARY +
+            "where (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findAllBefore(@Param("createdAt") OffsetDateTime createdAt,
+                             @Param("id") UUID id,
+                             Limit limit);
+
+    /**
+     * Same as {@link #findAllBefore(OffsetDateTime, UUID, Limit)} for the cards of one user.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerBefore(@Param("ownerId") UUID ownerId,
+                                 @Param("createdAt") OffsetDateTime createdAt,
+                                 @Param("id") UUID id,
+                                 Limit limit);
+
+    /**
+     * Same as {@link #findByOwnerBefore(UUID, OffsetDateTime, UUID, Limit)}, filtered by last four digits.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and c.last4 = :last4 and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerAndLast4Before(@Param("ownerId") UUID ownerId,
+                                         @Param("last4") String last4,
+                                         @Param("createdAt") OffsetDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Limit limit);
+
+    /**
+     * Same as {@link #findByOwnerBefore(UUID, OffsetDateTime, UUID, Limit)}, filtered by status.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and c.status = :status and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerAndStatusBefore(@Param("ownerId") UUID ownerId,
+                                          @Param("status") CardStatus status,
+                                          @Param("createdAt") OffsetDateTime createdAt,
+                                          @Param("id") UUID id,
+                                          Limit limit);
+
+    /**
+     * Same as {@link #findByOwnerBefore(UUID, OffsetDateTime, UUID, Limit)}, filtered by last four digits and status.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and c.last4 = :last4 and c.status = :status " +
+            "and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerAndLast4AndStatusBefore(@Param("ownerId") UUID ownerId,
+                                                  @Param("last4") String last4,
+                                                  @Param("status") CardStatus status,
+                                                  @Param("createdAt") OffsetDateTime createdAt,
+                                                  @Param("id") UUID id,
+                                                  Limit limit);
+
+    /**
+     * Same as {@link #findByOwnerBefore(UUID, OffsetDateTime, UUID, Limit)}, filtered by a mask pattern
+     * as in {@link #findSummariesByOwnerAndMaskLike(UUID, String, Pageable)}.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\' " +
+            "and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerAndMaskLikeBefore(@Param("ownerId") UUID ownerId,
+                                                   @Param("mask") String mask,
+                                                   @Param("createdAt") OffsetDateTime createdAt,
+                                                   @Param("id") UUID id,
+                                                   Limit limit);
+
+    /**
+     * Same as {@link #findByOwnerAndMaskLikeBefore(UUID, String, OffsetDateTime, UUID, Limit)}, also filtered
+     * by status.
+     */
+    @Query(SUMMARY +
+            "where c.owner.id = :ownerId and lower(c.cardMask) like lower(:mask) escape '\\' " +
+            "and c.status = :status and (c.createdAt, c.id) < (:createdAt, :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CardSummary> findByOwnerAndMaskLikeAndStatusBefore(@Param("ownerId") UUID ownerId,
+                                                            @Param("mask") String mask,
+                                                            @Param("status") CardStatus status,
+                                                            @Param("createdAt") OffsetDateTime createdAt,
+                                                            @Param("id") UUID id,
+                                                            Limit limit);
+
+    /**
+     * Loads a card and locks its row with {@code SELECT ... FOR UPDATE} until the
+     * surrounding transaction ends. Callers locking several cards must do so in
+     * {@link com.annasozonova.bank.util.UuidOrdering#POSTGRES_ORDER} to avoid deadlocks.
+     *
+     * @param id card ID
+     * @return optional containing the locked card if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id = :id")
+    Optional<Card> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Loads and row-locks all given cards in one statement. Rows are sorted by ID
+     * before they are locked, so the lock order matches
+     * {@link com.annasozonova.bank.util.UuidOrdering#POSTGRES_ORDER}.
+     *
+     * @param ids card IDs
+     * @return locked cards that exist, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids order by c.id")
+    List<Card> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Withdraws the amount from an active card in a single statement, provided the
+     * card belongs to the same owner as {@code counterpartId} and has enough funds.
+     *
+     * @param id            card to debit
+     * @param counterpartId card that receives the funds
+     * @param amount        amount to withdraw
+     * @param now           update timestamp
+     * @return number of updated rows (0 if any condition failed)
+     */
+    @Modifying
+    @Query("update Card c set c.balance = c.balance - :amount, c.updatedAt = :now, c.version = c.version + 1 " +
+            "where c.id = :id " +
+            "and c.status = com.annasozonova.bank.model.CardStatus.ACTIVE " +
+            "and c.balance >= :amount " +
+            "and c.owner.id = (select o.owner.id from Card o where o.id = :counterpartId)")
+    int debitIfAllowed(@Param("id") UUID id,
+                       @Param("counterpartId") UUID counterpartId,
+                       @Param("amount") Money amount,
+                       @Param("now") OffsetDateTime now);
 
     /**
-     * Retrieves a paginated list of cards for a user, filtering by both mask and status.
+     * Deposits the amount to an active card in a single statement, provided the
+     * card belongs to the same owner as {@code counterpartId}.
+     *
+     * @param id            card to credit
+     * @param counterpartId card that sends the funds
+     * @param amount        amount to deposit
+     * @param now           update timestamp
+     * @return number of updated rows (0 if any condition failed)
      */
-    Page<Card> findByOwner_IdAndCardMaskContainingIgnoreCaseAndStatus(
-            UUID ownerId,
-            String cardMask,
-            CardStatus status,
-            Pageable pageable
-    );
+    @Modifying
+    @Query("update Card c set c.balance = c.balance + :amount, c.updatedAt = :now, c.version = c.version + 1 " +
+            "where c.id = :id " +
+            "and c.status = com.annasozonova.bank.model.CardStatus.ACTIVE " +
+            "and c.owner.id = (select o.owner.id from Card o where o.id = :counterpartId)")
+    int creditIfAllowed(@Param("id") UUID id,
+                        @Param("counterpartId") UUID counterpartId,
+                        @Param("amount") Money amount,
+                        @Param("now") OffsetDateTime now);
 }
@@ -0,0 +1,22 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the card fields served by single-card reads.
+ * Carries the owner ID, so ownership checks do not load the owner.
+ *
+ * @param id             card ID
+ * @param ownerId        ID of the card owner
+ * @param cardMask       masked card number
+ * @param expirationDate expiration date
+ * @param status         card status
+ * @param balance        card balance
+ */
+public record CardSnapshot(UUID id, UUID ownerId, String cardMask, LocalDate expirationDate,
+                           CardStatus status, Money balance) {
+}
@@ -0,0 +1,82 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based card status changes for administrative bulk operations and the
+ * expiration sweep.
+ * <p>
+ * ID lists are bound as a single array parameter, so a chunk of any size is one
+ * statement with one round trip and one plan.
+ * </p>
+ */
+@Repository
+public class CardStatusRepository {
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public CardStatusRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Returns the IDs of all cards of the given users.
+     *
+     * @param ownerIds IDs of the card owners
+     * @return card IDs, unordered
+     */
+    public List<UUID> findIdsByOwners(Collection<UUID> ownerIds) {
+        return jdbc.queryForList("SELECT id FROM cards WHERE owner_id = ANY(?::uuid[])",
+                UUID.class, (Object) toArray(ownerIds));
+    }
+
+    /**
+     * Moves the given cards from one status to another in one statement.
+     * Cards in any other status are left unchanged.
+     *
+     * @param cardIds IDs of the cards
+     * @param from    status the cards must have
+     * @param to      new status
+     * @return IDs of the changed cards
+     */
+    public List<UUID> updateStatus(Collection<UUID> cardIds, CardStatus from, CardStatus to) {
+        return jdbc.queryForList("UPDATE cards SET status = ?::card_status, version = version + 1, updated_at = now() " +
+                        "WHERE id = ANY(?::uuid[]) AND status = ?::card_status RETURNING id",
+                UUID.class, to.name(), toArray(cardIds), from.name());
+    }
+
+    /**
+     * Moves up to {@code limit} active cards whose expiration date is before
+     * {@code today} to {@link CardStatus#EXPIRED} in one statement.
+     * <p>
+     * Cards are claimed with {@code FOR UPDATE SKIP LOCKED}: cards locked by a running
+     * transfer or by another sweeper are left for a later batch, so concurrent sweeps
+     * take disjoint batches and never wait on each other.
+     * </p>
+     *
+     * @param today first day on which cards are still valid
+     * @param limit maximum number of cards
+     * @return IDs of the expired cards
+     */
+    public List<UUID> expireBefore(LocalDate today, int limit) {
+        return jdbc.queryForList("WITH due AS (" +
+                        "SELECT id FROM cards WHERE status = 'ACTIVE'::card_status AND expiration_date < ? " +
+                        "LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                        "UPDATE cards c SET status = 'EXPIRED'::card_status, version = c.version + 1, " +
+                        "updated_at = now() FROM due WHERE c.id = due.id RETURNING c.id",
+                UUID.class, today, limit);
+    }
+
+    private static String[] toArray(Collection<UUID> ids) {
+        return ids.stream().map(UUID::toString).toArray(String[]::new);
+    }
+}
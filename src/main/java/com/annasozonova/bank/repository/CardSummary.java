@@ -0,0 +1,26 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a card for list endpoints.
+ * <p>
+ * Selected with a constructor expression, so listings neither load the encrypted
+ * card number nor put entities into the persistence context.
+ * </p>
+ *
+ * @param id             card ID
+ * @param cardMask       masked card number
+ * @param expirationDate expiration date
+ * @param status         card status
+ * @param balance        stored balance
+ * @param createdAt      creation time, the keyset position of the card in slices
+ */
+public record CardSummary(UUID id, String cardMask, LocalDate expirationDate, CardStatus status,
+                          Money balance, OffsetDateTime createdAt) {
+}
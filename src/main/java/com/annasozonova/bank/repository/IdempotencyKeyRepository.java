@@ -0,0 +1,47 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Repository for managing {@link IdempotencyKey} entities.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKey.Id> {
+
+    /**
+     * Inserts the key unless it already exists. A concurrent insert of the same key
+     * waits for the other transaction and then reports a conflict instead of failing.
+     *
+     * @param userId      ID of the user
+     * @param key         client-supplied idempotency key
+     * @param requestHash fingerprint of the request payload
+     * @param createdAt   insert timestamp
+     * @return 1 if the key was inserted, 0 if it was already present
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) " +
+            "VALUES (:userId, :key, :requestHash, :createdAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("key") String key,
+                       @Param("requestHash") String requestHash,
+                       @Param("createdAt") OffsetDateTime createdAt);
+
+    /**
+     * Deletes keys created before the cutoff.
+     *
+     * @param cutoff oldest creation time to keep
+     * @return number of deleted keys
+     */
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
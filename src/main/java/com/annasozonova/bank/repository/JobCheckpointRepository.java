@@ -0,0 +1,45 @@
+package com.annasozonova.bank.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for positions of incremental background jobs in {@code job_checkpoints}.
+ */
+@Repository
+public class JobCheckpointRepository {
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public JobCheckpointRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Returns the saved position of a job.
+     *
+     * @param name job name
+     * @return saved position, or 0 if the job has not saved one yet
+     */
+    public long find(String name) {
+        List<Long> positions = jdbc.queryForList(
+                "SELECT position FROM job_checkpoints WHERE name = ?", Long.class, name);
+        return positions.isEmpty() ? 0 : positions.get(0);
+    }
+
+    /**
+     * Saves the position of a job.
+     *
+     * @param name     job name
+     * @param position new position
+     */
+    public void save(String name, long position) {
+        jdbc.update("INSERT INTO job_checkpoints (name, position, updated_at) VALUES (?, ?, now()) " +
+                "ON CONFLICT (name) DO UPDATE SET position = EXCLUDED.position, updated_at = EXCLUDED.updated_at",
+                name, position);
+    }
+}
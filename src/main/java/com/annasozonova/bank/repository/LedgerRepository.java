@@ -0,0 +1,157 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.model.PostingType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only {@code postings} ledger and per-card balance snapshots.
+ * <p>
+ * Postings are written with plain JDBC so that every row takes its ID from the
+ * {@code postings} sequence at insert time. Together with the rule that postings of a
+ * card are only inserted while holding that card's row lock, this guarantees that a
+ * snapshot taken under the same lock covers every posting with a lower ID.
+ * </p>
+ */
+@Repository
+public class LedgerRepository {
+
+    private static final String INSERT_TRANSFER =
+            "INSERT INTO postings (transaction_id, card_id, entry_type, amount, created_at) " +
+            "VALUES (?, ?, 'DEBIT', ?, now()), (?, ?, 'CREDIT', ?, now())";
+
+    private static final String INSERT_OPENING =
+            "INSERT INTO postings (transaction_id, card_id, entry_type, amount, created_at) " +
+            "VALUES (NULL, ?, 'OPENING', ?, now())";
+
+    private static final String CURRENT_BALANCE =
+            "SELECT COALESCE(s.balance, 0) + COALESCE((" +
+            "    SELECT SUM(p.amount) FROM postings p " +
+            "    WHERE p.card_id = c.id AND p.id > COALESCE(s.last_posting_id, 0)), 0) " +
+            "FROM cards c LEFT JOIN card_balance_snapshots s ON s.card_id = c.id " +
+            "WHERE c.id = ?";
+
+    private static final String CARDS_WITH_POSTINGS =
+            "SELECT DISTINCT card_id FROM postings WHERE id > ? AND id <= ?";
+
+    private static final String REFRESH_SNAPSHOT =
+            "INSERT INTO card_balance_snapshots (card_id, balance, last_posting_id, taken_at) " +
+            "SELECT p.card_id, COALESCE(MAX(s.balance), 0) + SUM(p.amount), MAX(p.id), now() " +
+            "FROM postings p LEFT JOIN card_balance_snapshots s ON s.card_id = p.card_id " +
+            "WHERE p.card_id = ? AND p.id > COALESCE(s.last_posting_id, 0) " +
+            "GROUP BY p.card_id " +
+            "ON CONFLICT (card_id) DO UPDATE SET balance = EXCLUDED.balance, " +
+            "last_posting_id = EXCLUDED.last_posting_id, taken_at = EXCLUDED.taken_at";
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * A completed transfer to be posted: debit of the source, credit of the target.
+     *
+     * @param transactionId ID of the transfer's {@code transactions} row
+     * @param fromCardId    debited card
+     * @param toCardId      credited card
+     * @param amount        transferred amount
+     */
+    public record TransferPosting(UUID transactionId, UUID fromCardId, UUID toCardId, Money amount) {
+    }
+
+    @Autowired
+    public LedgerRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Appends one {@link PostingType#DEBIT} and one {@link PostingType#CREDIT} posting per transfer,
+     * as a single JDBC batch. The transfers' {@code transactions} rows must already be flushed.
+     *
+     * @param transfers completed transfers
+     */
+    public void insertTransferPostings(List<TransferPosting> transfers) {
+        jdbc.batchUpdate(INSERT_TRANSFER, transfers, transfers.size(), (ps, t) -> {
+            BigDecimal amount = t.amount().toBigDecimal();
+            ps.setObject(1, t.transactionId());
+            ps.setObject(2, t.fromCardId());
+            ps.setBigDecimal(3, amount.negate());
+            ps.setObject(4, t.transactionId());
+            ps.setObject(5, t.toCardId());
+            ps.setBigDecimal(6, amount);
+        });
+    }
+
+    /**
+     * Appends the {@link PostingType#OPENING} posting of a new card.
+     * The card row must already be flushed.
+     *
+     * @param cardId  ID of the card
+     * @param balance initial balance
+     */
+    public void insertOpening(UUID cardId, Money balance) {
+        jdbc.update(INSERT_OPENING, cardId, balance.toBigDecimal());
+    }
+
+    /**
+     * Appends the {@link PostingType#OPENING} postings of many new cards in one batch.
+     * The card rows must already be inserted.
+     *
+     * @param balances initial balance per card ID
+     */
+    public void insertOpenings(Map<UUID, Money> balances) {
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        balances.forEach((cardId, balance) -> rows.add(new Object[]{cardId, balance.toBigDecimal()}));
+        jdbc.batchUpdate(INSERT_OPENING, rows);
+    }
+
+    /**
+     * Computes a card's balance from its latest snapshot plus the postings after it,
+     * in a single statement.
+     *
+     * @param cardId ID of the card
+     * @return ledger balance, or empty if the card does not exist
+     */
+    public Optional<Money> currentBalance(UUID cardId) {
+        return jdbc.query(CURRENT_BALANCE, rs -> rs.next()
+                ? Optional.of(Money.of(rs.getBigDecimal(1)))
+                : Optional.empty(), cardId);
+    }
+
+    /**
+     * Returns the highest posting ID assigned so far.
+     *
+     * @return highest posting ID, or 0 if there are none
+     */
+    public long maxPostingId() {
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM postings", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Returns the cards that have postings in an ID range.
+     *
+     * @param afterId lower bound, exclusive
+     * @param upToId  upper bound, inclusive
+     * @return distinct card IDs
+     */
+    public List<UUID> findCardsWithPostings(long afterId, long upToId) {
+        return jdbc.queryForList(CARDS_WITH_POSTINGS, UUID.class, afterId, upToId);
+    }
+
+    /**
+     * Folds the postings made since each card's last snapshot into the snapshot.
+     * Callers must hold the row locks of the cards.
+     *
+     * @param cardIds cards to refresh
+     */
+    public void refreshSnapshots(List<UUID> cardIds) {
+        jdbc.batchUpdate(REFRESH_SNAPSHOT, cardIds, cardIds.size(), (ps, id) -> ps.setObject(1, id));
+    }
+}
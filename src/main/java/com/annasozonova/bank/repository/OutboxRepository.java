@@ -0,0 +1,180 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.service.OutboxSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Repository for the transactional outbox in {@code outbox_events}.
+ * <p>
+ * Events are appended in the transaction of the change they describe, so they are
+ * committed or rolled back together with it. The poller claims them with
+ * {@code FOR UPDATE SKIP LOCKED}, which lets several pollers work through the table
+ * without blocking on each other's rows.
+ * </p>
+ * <p>
+ * Without any {@link OutboxSink} bean nothing would ever deliver and delete the events,
+ * so appends are skipped and the table stays empty.
+ * </p>
+ */
+@Repository
+public class OutboxRepository {
+
+    public static final String TRANSFER_COMPLETED = "TRANSFER_COMPLETED";
+    public static final String CARD_BLOCKED = "CARD_BLOCKED";
+    public static final String CARD_ACTIVATED = "CARD_ACTIVATED";
+    public static final String CARD_EXPIRED = "CARD_EXPIRED";
+
+    private static final String INSERT =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at, attempts, available_at) " +
+            "VALUES (?, ?, ?::jsonb, now(), 0, now())";
+
+    private static final String CLAIM =
+            "SELECT id, event_type, aggregate_id, payload, created_at, attempts FROM outbox_events " +
+            "WHERE available_at <= now() ORDER BY available_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final RowMapper<OutboxEvent> EVENT = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getObject(3, UUID.class),
+            rs.getString(4),
+            rs.getObject(5, OffsetDateTime.class),
+            rs.getInt(6));
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    /**
+     * Event read from the outbox.
+     *
+     * @param id          sequential event ID; consumers use it to drop redeliveries
+     * @param type        event type, one of the constants of this class
+     * @param aggregateId card or transaction the event is about
+     * @param payload     event body as JSON
+     * @param createdAt   commit time of the change
+     * @param attempts    number of failed deliveries so far
+     */
+    public record OutboxEvent(long id, String type, UUID aggregateId, String payload,
+                              OffsetDateTime createdAt, int attempts) {
+    }
+
+    @Autowired
+    public OutboxRepository(JdbcTemplate jdbc, ObjectMapper objectMapper, List<OutboxSink> sinks) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.enabled = !sinks.isEmpty();
+    }
+
+    /**
+     * Appends one {@link #TRANSFER_COMPLETED} event per completed transfer, in one batch.
+     * Does nothing if no sink is registered.
+     *
+     * @param transfers completed transfers
+     */
+    public void appendTransfers(List<LedgerRepository.TransferPosting> transfers) {
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(transfers.size());
+        for (LedgerRepository.TransferPosting transfer : transfers) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("transactionId", transfer.transactionId());
+            payload.put("fromCardId", transfer.fromCardId());
+            payload.put("toCardId", transfer.toCardId());
+            payload.put("amount", transfer.amount().toBigDecimal());
+            rows.add(new Object[]{TRANSFER_COMPLETED, transfer.transactionId(), toJson(payload)});
+        }
+        jdbc.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Appends a {@link #CARD_BLOCKED}, {@link #CARD_ACTIVATED} or {@link #CARD_EXPIRED} event.
+     *
+     * @param cardId ID of the card
+     * @param status new status of the card
+     */
+    public void appendCardStatus(UUID cardId, CardStatus status) {
+        appendCardStatuses(List.of(cardId), status);
+    }
+
+    /**
+     * Appends one {@link #CARD_BLOCKED}, {@link #CARD_ACTIVATED} or {@link #CARD_EXPIRED} event
+     * per card, in one batch. Does nothing if no sink is registered.
+     *
+     * @param cardIds IDs of the cards
+     * @param status  new status of the cards
+     */
+    public void appendCardStatuses(Collection<UUID> cardIds, CardStatus status) {
+        if (!enabled) {
+            return;
+        }
+        String type = switch (status) {
+            case BLOCKED -> CARD_BLOCKED;
+            case ACTIVE -> CARD_ACTIVATED;
+            case EXPIRED -> CARD_EXPIRED;
+        };
+        List<Object[]> rows = new ArrayList<>(cardIds.size());
+        for (UUID cardId : cardIds) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("cardId", cardId);
+            payload.put("status", status.name());
+            rows.add(new Object[]{type, cardId, toJson(payload)});
+        }
+        jdbc.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Locks up to {@code limit} deliverable events, oldest first, skipping events
+     * already claimed by another transaction. Must run inside a transaction.
+     *
+     * @param limit maximum number of events
+     * @return claimed events
+     */
+    public List<OutboxEvent> claim(int limit) {
+        return jdbc.query(CLAIM, EVENT, limit);
+    }
+
+    /**
+     * Deletes delivered events.
+     *
+     * @param ids event IDs
+     */
+    public void delete(List<Long> ids) {
+        jdbc.update("DELETE FROM outbox_events WHERE id = ANY(?)", (Object) ids.toArray(Long[]::new));
+    }
+
+    /**
+     * Counts a failed delivery and postpones the events.
+     *
+     * @param ids   event IDs
+     * @param delay time until the next attempt
+     */
+    public void reschedule(List<Long> ids, Duration delay) {
+        jdbc.update("UPDATE outbox_events SET attempts = attempts + 1, " +
+                        "available_at = now() + ? * INTERVAL '1 millisecond' WHERE id = ANY(?)",
+                delay.toMillis(), ids.toArray(Long[]::new));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox event", ex);
+        }
+    }
+}
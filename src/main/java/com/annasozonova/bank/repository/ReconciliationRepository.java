@@ -0,0 +1,143 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.dto.BalanceMismatchDto;
+import com.annasozonova.bank.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Repository for the balance reconciliation job: ledger sums, per-range checkpoints and
+ * found mismatches.
+ */
+@Repository
+public class ReconciliationRepository {
+
+    private static final String BALANCES =
+            "SELECT c.id, c.balance, " +
+            "COALESCE((SELECT SUM(p.amount) FROM postings p WHERE p.card_id = c.id), 0) " +
+            "FROM cards c WHERE c.id > ? AND c.id <= ? ORDER BY c.id LIMIT ?";
+
+    private static final String UPSERT_MISMATCH =
+            "INSERT INTO balance_mismatches (card_id, stored_balance, ledger_balance, detected_at) " +
+            "VALUES (?, ?, ?, now()) " +
+            "ON CONFLICT (card_id) DO UPDATE SET stored_balance = EXCLUDED.stored_balance, " +
+            "ledger_balance = EXCLUDED.ledger_balance, detected_at = EXCLUDED.detected_at";
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Stored and ledger balance of one card.
+     *
+     * @param cardId ID of the card
+     * @param stored {@code cards.balance}
+     * @param ledger sum of all postings of the card
+     */
+    public record BalanceCheck(UUID cardId, Money stored, Money ledger) {
+
+        public boolean matches() {
+            return stored.equals(ledger);
+        }
+    }
+
+    /**
+     * Progress of one card ID range in the current run.
+     *
+     * @param lastCardId last card checked, or {@code null} if the range has not started
+     * @param completed  whether the whole range has been checked
+     */
+    public record Checkpoint(UUID lastCardId, boolean completed) {
+    }
+
+    @Autowired
+    public ReconciliationRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Reads stored and ledger balances of the next cards of a range, in a single
+     * statement, so both sides come from the same snapshot.
+     *
+     * @param after exclusive lower bound of card IDs
+     * @param upTo  inclusive upper bound of card IDs
+     * @param limit maximum number of cards
+     * @return balances ordered by card ID
+     */
+    public List<BalanceCheck> findBalances(UUID after, UUID upTo, int limit) {
+        return jdbc.query(BALANCES, (rs, rowNum) -> new BalanceCheck(
+                rs.getObject(1, UUID.class),
+                Money.of(rs.getBigDecimal(2)),
+                Money.of(rs.getBigDecimal(3))), after, upTo, limit);
+    }
+
+    /**
+     * Returns the checkpoints of the current run by range number.
+     *
+     * @return checkpoints; empty if no run has started yet
+     */
+    public Map<Integer, Checkpoint> findCheckpoints() {
+        Map<Integer, Checkpoint> checkpoints = new HashMap<>();
+        jdbc.query("SELECT range_no, last_card_id, completed FROM reconciliation_checkpoints", rs -> {
+            checkpoints.put(rs.getInt(1), new Checkpoint(rs.getObject(2, UUID.class), rs.getBoolean(3)));
+        });
+        return checkpoints;
+    }
+
+    /**
+     * Starts a new run: forgets the mismatches and checkpoints of the previous one and
+     * creates an empty checkpoint per range.
+     *
+     * @param ranges number of ranges
+     */
+    @Transactional
+    public void startRun(int ranges) {
+        jdbc.update("DELETE FROM balance_mismatches");
+        jdbc.update("DELETE FROM reconciliation_checkpoints");
+        jdbc.update("INSERT INTO reconciliation_checkpoints (range_no, last_card_id, completed, updated_at) " +
+                "SELECT n, NULL, FALSE, now() FROM generate_series(0, ? - 1) n", ranges);
+    }
+
+    /**
+     * Saves the progress of a range.
+     *
+     * @param range      range number
+     * @param lastCardId last card checked
+     * @param completed  whether the whole range has been checked
+     */
+    public void saveCheckpoint(int range, UUID lastCardId, boolean completed) {
+        jdbc.update("UPDATE reconciliation_checkpoints SET last_card_id = ?, completed = ?, updated_at = now() " +
+                "WHERE range_no = ?", lastCardId, completed, range);
+    }
+
+    /**
+     * Records a card whose balances differ. Recording the same card again overwrites it.
+     *
+     * @param check balances of the card
+     */
+    public void saveMismatch(BalanceCheck check) {
+        jdbc.update(UPSERT_MISMATCH, check.cardId(), check.stored().toBigDecimal(), check.ledger().toBigDecimal());
+    }
+
+    /**
+     * Returns the mismatches found by the latest run, largest difference first.
+     *
+     * @param limit maximum number of mismatches
+     * @return mismatches
+     */
+    public List<BalanceMismatchDto> findMismatches(int limit) {
+        return jdbc.query("SELECT card_id, stored_balance, ledger_balance, detected_at FROM balance_mismatches " +
+                        "ORDER BY abs(stored_balance - ledger_balance) DESC, card_id LIMIT ?",
+                (rs, rowNum) -> new BalanceMismatchDto(
+                        rs.getObject(1, UUID.class),
+                        rs.getBigDecimal(2),
+                        rs.getBigDecimal(3),
+                        rs.getObject(4, OffsetDateTime.class)), limit);
+    }
+}
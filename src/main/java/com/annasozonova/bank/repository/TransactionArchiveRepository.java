@@ -0,0 +1,449 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.util.CursorCodec;
+import com.annasozonova.bank.util.UuidOrdering;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Repository for archived months of {@code transactions}, kept as local files.
+ * <p>
+ * Each month is one file. Every transaction is stored once per card it touches, sorted by
+ * card ID and then newest first, so the history of one card is a contiguous run of
+ * entries. Entries are grouped into blocks of {@code block-rows}; a block stores each
+ * column separately and is compressed on its own. A sparse index at the end of the file
+ * holds the first and last card ID and the offset of every block, so a lookup inflates
+ * only the blocks that can contain the card.
+ * </p>
+ * <pre>
+ * file   := magic version block* index indexOffset:long magic
+ * block  := compressedLength:int rows:int deflate(columns)
+ * index  := blocks:int (firstCard:uuid lastCard:uuid offset:long)*
+ * </pre>
+ */
+@Repository
+public class TransactionArchiveRepository {
+
+    private static final int MAGIC = 0x42545841; // "BTXA"
+    private static final int VERSION = 1;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern FILE_NAME = Pattern.compile("transactions-(\\d{6})\\.arc");
+
+    private final Path directory;
+    private final int blockRows;
+    private final Map<YearMonth, List<BlockRef>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * One archived transaction as seen from one of its cards.
+     *
+     * @param cardId         card whose history the entry belongs to
+     * @param outgoing       whether the card is the source of the transfer
+     * @param counterpartyId the other card of the transfer
+     * @param transactionId  ID of the transaction
+     * @param amount         transferred amount
+     * @param transferDate   timestamp of the transfer
+     * @param status         transaction status
+     * @param description    optional description
+     */
+    public record ArchiveEntry(UUID cardId, boolean outgoing, UUID counterpartyId, UUID transactionId,
+                               Money amount, OffsetDateTime transferDate, String status, String description) {
+    }
+
+    private record BlockRef(UUID firstCard, UUID lastCard, long offset) {
+    }
+
+    @Autowired
+    public TransactionArchiveRepository(@Value("${bank.archive.dir}") Path directory,
+                                        @Value("${bank.archive.block-rows}") int blockRows) {
+        this.directory = directory;
+        this.blockRows = Math.max(1, blockRows);
+    }
+
+    /**
+     * Checks whether a month has been archived.
+     *
+     * @param month calendar month (UTC)
+     * @return true if the month's archive file exists
+     */
+    public boolean isArchived(YearMonth month) {
+        return indexes.containsKey(month) || Files.exists(file(month));
+    }
+
+    /**
+     * Lists the archived months, found from the names of the archive files.
+     *
+     * @return archived months in ascending order; empty if nothing was archived yet
+     * @throws UncheckedIOException if the archive directory cannot be listed
+     */
+    public NavigableSet<YearMonth> archivedMonths() {
+        NavigableSet<YearMonth> months = new TreeSet<>();
+        if (!Files.isDirectory(directory)) {
+            return months;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "transactions-*.arc")) {
+            for (Path path : files) {
+                Matcher name = FILE_NAME.matcher(path.getFileName().toString());
+                if (name.matches()) {
+                    months.add(YearMonth.parse(name.group(1), FILE_MONTH));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list transaction archive", e);
+        }
+        return months;
+    }
+
+    /**
+     * Reads the archived transactions of a card in one month, newest first.
+     *
+     * @param month  archived month
+     * @param cardId ID of the card
+     * @param before only entries older than this position, or {@code null} for all
+     * @param limit  maximum number of transactions
+     * @return transactions of the card, newest first
+     * @throws UncheckedIOException if the archive file cannot be read
+     */
+    public List<TransactionDto> findCardTransactions(YearMonth month, UUID cardId,
+                                                     CursorCodec.Position before, int limit) {
+        List<TransactionDto> result = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file(month), StandardOpenOption.READ)) {
+            List<BlockRef> blocks = indexes.computeIfAbsent(month, m -> readIndex(channel));
+            for (int i = firstCandidate(blocks, cardId); i < blocks.size() && result.size() < limit; i++) {
+                BlockRef block = blocks.get(i);
+                if (UuidOrdering.compare(block.firstCard(), cardId) > 0) {
+                    break;
+                }
+                for (ArchiveEntry entry : readBlock(channel, block.offset())) {
+                    if (result.size() == limit) {
+                        break;
+                    }
+                    if (entry.cardId().equals(cardId) && isBefore(entry, before)) {
+                        result.add(toDto(entry));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction archive of " + month, e);
+        }
+        return result;
+    }
+
+    /**
+     * Opens a writer for the archive of a month. Entries must be appended in card ID order
+     * and newest first within a card. The file becomes visible only on
+     * {@link ArchiveWriter#commit()}, replacing an earlier archive of the month.
+     *
+     * @param month calendar month (UTC)
+     * @return archive writer
+     * @throws IOException if the file cannot be created
+     */
+    public ArchiveWriter openWriter(YearMonth month) throws IOException {
+        Files.createDirectories(directory);
+        return new ArchiveWriter(month);
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve("transactions-" + month.format(FILE_MONTH) + ".arc");
+    }
+
+    private static int firstCandidate(List<BlockRef> blocks, UUID cardId) {
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UuidOrdering.compare(blocks.get(mid).lastCard(), cardId) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isBefore(ArchiveEntry entry, CursorCodec.Position before) {
+        if (before == null) {
+            return true;
+        }
+        int byDate = entry.transferDate().toInstant().compareTo(before.timestamp().toInstant());
+        return byDate < 0 || byDate == 0 && UuidOrdering.compare(entry.transactionId(), before.id()) < 0;
+    }
+
+    private static TransactionDto toDto(ArchiveEntry entry) {
+        return new TransactionDto(
+                entry.transactionId(),
+                entry.outgoing() ? entry.cardId() : entry.counterpartyId(),
+                entry.outgoing() ? entry.counterpartyId() : entry.cardId(),
+                entry.amount().toBigDecimal(),
+                entry.transferDate(),
+                entry.status(),
+                entry.description());
+    }
+
+    private static List<BlockRef> readIndex(FileChannel channel) {
+        try {
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            readFully(channel, footer, channel.size() - FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Not a transaction archive");
+            }
+            ByteBuffer index = ByteBuffer.allocate((int) (channel.size() - FOOTER_SIZE - indexOffset));
+            readFully(channel, index, indexOffset);
+            int count = index.getInt();
+            List<BlockRef> blocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                blocks.add(new BlockRef(
+                        new UUID(index.getLong(), index.getLong()),
+                        new UUID(index.getLong(), index.getLong()),
+                        index.getLong()));
+            }
+            return blocks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<ArchiveEntry> readBlock(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+        readFully(channel, header, offset);
+        int length = header.getInt();
+        int rows = header.getInt();
+        ByteBuffer compressed = ByteBuffer.allocate(length);
+        readFully(channel, compressed, offset + header.capacity());
+
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(compressed.array()), inflater)))) {
+            long[] cardHigh = readLongs(in, rows);
+            long[] cardLow = readLongs(in, rows);
+            long[] micros = readLongs(in, rows);
+            long[] idHigh = readLongs(in, rows);
+            long[] idLow = readLongs(in, rows);
+            long[] otherHigh = readLongs(in, rows);
+            long[] otherLow = readLongs(in, rows);
+            long[] amounts = readLongs(in, rows);
+            boolean[] outgoing = new boolean[rows];
+            for (int i = 0; i < rows; i++) {
+                outgoing[i] = in.readBoolean();
+            }
+            String[] statuses = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                statuses[i] = in.readUTF();
+            }
+            List<ArchiveEntry> entries = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                String description = null;
+                if (in.readBoolean()) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    description = new String(bytes, StandardCharsets.UTF_8);
+                }
+                entries.add(new ArchiveEntry(
+                        new UUID(cardHigh[i], cardLow[i]),
+                        outgoing[i],
+                        new UUID(otherHigh[i], otherLow[i]),
+                        new UUID(idHigh[i], idLow[i]),
+                        new Money(amounts[i]),
+                        OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros[i], ChronoUnit.MICROS), ZoneOffset.UTC),
+                        statuses[i],
+                        description));
+            }
+            return entries;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Truncated transaction archive");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static long[] readLongs(DataInputStream in, int rows) throws IOException {
+        long[] values = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * Writes the archive of one month block by block. Only one block of entries is held
+     * in memory at a time.
+     */
+    public final class ArchiveWriter implements Closeable {
+
+        private final YearMonth month;
+        private final Path temp;
+        private final DataOutputStream out;
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final List<ArchiveEntry> pending = new ArrayList<>(blockRows);
+        private final List<BlockRef> blocks = new ArrayList<>();
+        private ArchiveEntry last;
+        private long offset;
+        private long entries;
+        private boolean committed;
+
+        private ArchiveWriter(YearMonth month) throws IOException {
+            this.month = month;
+            this.temp = Files.createTempFile(directory, "transactions-" + month.format(FILE_MONTH), ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            offset = 2 * Integer.BYTES;
+        }
+
+        /**
+         * Appends an entry.
+         *
+         * @param entry entry following the previous one in card ID order, newest first
+         * @throws IOException              if the block cannot be written
+         * @throws IllegalArgumentException if the entry is out of order
+         */
+        public void append(ArchiveEntry entry) throws IOException {
+            if (last != null && UuidOrdering.compare(last.cardId(), entry.cardId()) > 0) {
+                throw new IllegalArgumentException("Archive entries must be sorted by card ID");
+            }
+            last = entry;
+            pending.add(entry);
+            entries++;
+            if (pending.size() == blockRows) {
+                flushBlock();
+            }
+        }
+
+        /**
+         * Writes the index, syncs the file to disk and moves it into place.
+         *
+         * @return number of entries written
+         * @throws IOException if the archive cannot be completed
+         */
+        public long commit() throws IOException {
+            flushBlock();
+            long indexOffset = offset;
+            out.writeInt(blocks.size());
+            for (BlockRef block : blocks) {
+                out.writeLong(block.firstCard().getMostSignificantBits());
+                out.writeLong(block.firstCard().getLeastSignificantBits());
+                out.writeLong(block.lastCard().getMostSignificantBits());
+                out.writeLong(block.lastCard().getLeastSignificantBits());
+                out.writeLong(block.offset());
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(MAGIC);
+            out.close();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, file(month), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            indexes.remove(month);
+            committed = true;
+            return entries;
+        }
+
+        /**
+         * Releases the writer; an uncommitted archive is discarded.
+         */
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            deflater.reset();
+            try (DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(buffer, deflater))) {
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.cardId().getMostSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.cardId().getLeastSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(ChronoUnit.MICROS.between(Instant.EPOCH, e.transferDate().toInstant()));
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.transactionId().getMostSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.transactionId().getLeastSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.counterpartyId().getMostSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.counterpartyId().getLeastSignificantBits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeLong(e.amount().minorUnits());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeBoolean(e.outgoing());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeUTF(e.status());
+                }
+                for (ArchiveEntry e : pending) {
+                    columns.writeBoolean(e.description() != null);
+                    if (e.description() != null) {
+                        byte[] bytes = e.description().getBytes(StandardCharsets.UTF_8);
+                        columns.writeInt(bytes.length);
+                        columns.write(bytes);
+                    }
+                }
+            }
+            byte[] compressed = buffer.toByteArray();
+            blocks.add(new BlockRef(pending.get(0).cardId(), pending.get(pending.size() - 1).cardId(), offset));
+            out.writeInt(compressed.length);
+            out.writeInt(pending.size());
+            out.write(compressed);
+            offset += 2 * Integer.BYTES + compressed.length;
+            pending.clear();
+        }
+    }
+}
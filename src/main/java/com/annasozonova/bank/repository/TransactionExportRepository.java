@@ -0,0 +1,119 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Repository streaming raw {@code transactions} rows for exports and archiving.
+ * <p>
+ * Rows are read through a forward-only cursor, {@code fetch-size} rows per round trip,
+ * and handed to the callback one by one without mapping them to entities. The
+ * PostgreSQL driver only uses a cursor inside a transaction, so callers must run the
+ * stream in one; otherwise the whole result is buffered in memory.
+ * </p>
+ */
+@Repository
+public class TransactionExportRepository {
+
+    private static final String COLUMNS =
+            "t.id, t.from_card_id, t.to_card_id, t.amount, t.transfer_date, t.status, t.description";
+
+    private static final String CARD_TRANSACTIONS =
+            "(SELECT " + COLUMNS + " FROM transactions t WHERE t.from_card_id = ? AND t.transfer_date >= ? " +
+            "ORDER BY t.transfer_date, t.id) " +
+            "UNION ALL " +
+            "(SELECT " + COLUMNS + " FROM transactions t WHERE t.to_card_id = ? AND t.from_card_id <> ? " +
+            "AND t.transfer_date >= ? ORDER BY t.transfer_date, t.id) " +
+            "ORDER BY transfer_date, id";
+
+    private static final String USER_TRANSACTIONS =
+            "SELECT " + COLUMNS + " FROM transactions t " +
+            "JOIN cards c ON c.id = t.from_card_id WHERE c.owner_id = ? AND t.transfer_date >= ? " +
+            "UNION ALL " +
+            "SELECT " + COLUMNS + " FROM transactions t " +
+            "JOIN cards c ON c.id = t.to_card_id WHERE c.owner_id = ? AND t.transfer_date >= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM cards f WHERE f.id = t.from_card_id AND f.owner_id = ?) " +
+            "ORDER BY transfer_date, id";
+
+    private static final String ARCHIVE_ENTRIES =
+            "SELECT from_card_id AS card_id, TRUE AS outgoing, to_card_id AS counterparty_id, " +
+            "id, amount, transfer_date, status, description FROM public.%1$s " +
+            "UNION ALL " +
+            "SELECT to_card_id, FALSE, from_card_id, id, amount, transfer_date, status, description " +
+            "FROM public.%1$s WHERE to_card_id <> from_card_id " +
+            "ORDER BY card_id, transfer_date DESC, id DESC";
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public TransactionExportRepository(DataSource dataSource,
+                                       @Value("${bank.export.fetch-size}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(Math.max(1, fetchSize));
+    }
+
+    /**
+     * Streams the transactions sent or received by a card from the given time on, oldest first.
+     *
+     * @param cardId  ID of the card
+     * @param from    earliest transfer date, inclusive
+     * @param handler callback invoked for every row
+     */
+    public void streamCardTransactions(UUID cardId, OffsetDateTime from, RowCallbackHandler handler) {
+        jdbc.query(CARD_TRANSACTIONS, handler, cardId, from, cardId, cardId, from);
+    }
+
+    /**
+     * Streams the transactions sent or received by any card of a user from the given time
+     * on, oldest first. Transfers between two cards of the user appear once.
+     *
+     * @param userId  ID of the user
+     * @param from    earliest transfer date, inclusive
+     * @param handler callback invoked for every row
+     */
+    public void streamUserTransactions(UUID userId, OffsetDateTime from, RowCallbackHandler handler) {
+        jdbc.query(USER_TRANSACTIONS, handler, userId, from, userId, from, userId);
+    }
+
+    /**
+     * Returns the IDs of all cards of a user.
+     *
+     * @param userId ID of the user
+     * @return card IDs
+     */
+    public Set<UUID> findCardIds(UUID userId) {
+        return new HashSet<>(jdbc.queryForList("SELECT id FROM cards WHERE owner_id = ?", UUID.class, userId));
+    }
+
+    /**
+     * Streams one monthly partition as archive entries: every transaction once for each of
+     * its cards, sorted by card ID and newest first.
+     *
+     * @param month    month of the partition (UTC)
+     * @param consumer callback invoked for every entry
+     */
+    public void streamArchiveEntries(YearMonth month, Consumer<TransactionArchiveRepository.ArchiveEntry> consumer) {
+        String sql = String.format(ARCHIVE_ENTRIES, TransactionPartitionRepository.partitionName(month));
+        jdbc.query(sql, (RowCallbackHandler) rs -> consumer.accept(new TransactionArchiveRepository.ArchiveEntry(
+                rs.getObject("card_id", UUID.class),
+                rs.getBoolean("outgoing"),
+                rs.getObject("counterparty_id", UUID.class),
+                rs.getObject("id", UUID.class),
+                Money.of(rs.getBigDecimal("amount")),
+                rs.getObject("transfer_date", OffsetDateTime.class),
+                rs.getString("status"),
+                rs.getString("description"))));
+    }
+}
@@ -0,0 +1,91 @@
+package com.annasozonova.bank.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Repository for the monthly partitions of the {@code transactions} table.
+ * <p>
+ * Each partition holds one UTC calendar month of {@code transfer_date} and is named
+ * {@code transactions_pYYYYMM}. Rows outside of all monthly partitions land in
+ * {@code transactions_default}.
+ * </p>
+ */
+@Repository
+public class TransactionPartitionRepository {
+
+    private static final String PREFIX = "transactions_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public TransactionPartitionRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Creates the partition of the given month unless it already exists.
+     *
+     * @param month calendar month (UTC)
+     */
+    public void createPartition(YearMonth month) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS public." + partitionName(month) +
+                " PARTITION OF public.transactions FOR VALUES FROM ('" + bound(month) +
+                "') TO ('" + bound(month.plusMonths(1)) + "')");
+    }
+
+    /**
+     * Returns the months of all monthly partitions of {@code transactions}.
+     *
+     * @return months, oldest first
+     */
+    public List<YearMonth> findMonths() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                        "WHERE n.nspname = 'public' AND p.relname = 'transactions'", String.class)
+                .stream()
+                .map(TransactionPartitionRepository::monthOf)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Drops the partition of the given month.
+     *
+     * @param month calendar month (UTC)
+     */
+    public void dropPartition(YearMonth month) {
+        jdbc.execute("DROP TABLE IF EXISTS public." + partitionName(month));
+    }
+
+    /**
+     * Returns the table name of the partition of the given month.
+     *
+     * @param month calendar month (UTC)
+     * @return partition table name
+     */
+    public static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    private static YearMonth monthOf(String tableName) {
+        if (!tableName.matches(PREFIX + "\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(tableName.substring(PREFIX.length()), SUFFIX);
+    }
+
+    private static String bound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+}
@@ -1,24 +1,139 @@
 package com.annasozonova.bank.repository;
 
 import com.annasozonova.bank.model.Transaction;
+import com.annasozonova.bank.model.TransactionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Repository for managing {@link Transaction} entities.
+ * <p>
+ * History lookups are split by direction so that each query is a single range scan
+ * over {@code (from_card_id | to_card_id, transfer_date, id)} instead of an OR-scan,
+ * and page through results with a {@code (transfer_date, id)} seek predicate instead of OFFSET.
+ * </p>
+ * <p>
+ * The table is range-partitioned by month of {@code transfer_date}. Every history query is
+ * bounded by a transfer date window on both sides, so Postgres prunes it to the partitions
+ * of that window instead of probing the indexes of every month.
+ * </p>
  */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
     /**
-     * Retrieves all transactions where the given card is either the source or the target.
+     * Retrieves the newest transactions sent from the given card within one transfer date window.
      *
-     * @param fromCardId UUID of the source card
-     * @param toCardId   UUID of the target card
-     * @return list of matching transactions
+     * @param cardId UUID of the source card
+     * @param from   start of the window, inclusive
+     * @param to     end of the window, exclusive
+     * @param limit  maximum number of rows
+     * @return transactions ordered by transfer date and ID, newest first
      */
-    List<Transaction> findAllByFromCardIdOrToCardId(UUID fromCardId, UUID toCardId);
+    @Query("select t from Transaction t where t.fromCard.id = :cardId " +
+            "and t.transferDate >= :from and t.transferDate < :to " +
+            "order by t.transferDate desc, t.id desc")
+    List<Transaction> findOutgoing(@Param("cardId") UUID cardId,
+                                 @Param("from") OffsetDateTime from,
+                                 @Param("to") OffsetDateTime to,
+                                 Limit limit);
+
+    /**
+     * Retrieves transactions sent from the given card that are older than the cursor position
+     * but not older than the start of the window.
+     *
+     * @param cardId UUID of the source card
+     * @param from   start of the window, inclusive
+     * @param date   transfer date of the last row already returned
+     * @param id     ID of the last row already returned
+     * @param limit  maximum number of rows
+     * @return transactions ordered by transfer date and ID, newest first
+     */
+    @Query("select t from Transaction t where t.fromCard.id = :cardId " +
+            "and t.transferDate >= :from and t.transferDate <= :date " +
+            "and (t.transferDate, t.id) < (:date, :id) " +
+            "order by t.transferDate desc, t.id desc")
+    List<Transaction> findOutgoingBefore(@Param("cardId") UUID cardId,
+                                         @Param("from") OffsetDateTime from,
+                                         @Param("date") OffsetDateTime date,
+                                         @Param("id") UUID id,
+                                         Limit limit);
+
+    /**
+     * Retrieves the newest transactions received by the given card within one transfer date window.
+     *
+     * @param cardId UUID of the target card
+     * @param from   start of the window, inclusive
+     * @param to     end of the window, exclusive
+     * @param limit  maximum number of rows
+     * @return transactions ordered by transfer date and ID, newest first
+     */
+    @Query("select t from Transaction t where t.toCard.id = :cardId " +
+            "and t.transferDate >= :from and t.transferDate < :to " +
+            "order by t.transferDate desc, t.id desc")
+    List<Transaction> findIncoming(@Param("cardId") UUID cardId,
+                                 @Param("from") OffsetDateTime from,
+                                 @Param("to") OffsetDateTime to,
+                                 Limit limit);
+
+    /**
+     * Retrieves transactions received by the given card that are older than the cursor position
+     * but not older than the start of the window.
+     *
+     * @param cardId UUID of the target card
+     * @param from   start of the window, inclusive
+     * @param date   transfer date of the last row already returned
+     * @param id     ID of the last row already returned
+     * @param limit  maximum number of rows
+     * @return transactions ordered by transfer date and ID, newest first
+     */
+    @Query("select t from Transaction t where t.toCard.id = :cardId " +
+            "and t.transferDate >= :from and t.transferDate <= :date " +
+            "and (t.transferDate, t.id) < (:date, :id) " +
+            "order by t.transferDate desc, t.id desc")
+    List<Transaction> findIncomingBefore(@Param("cardId") UUID cardId,
+                                         @Param("from") OffsetDateTime from,
+                                         @Param("date") OffsetDateTime date,
+                                         @Param("id") UUID id,
+                                         Limit limit);
+
+    /**
+     * Moves a {@code PENDING} transaction to its final status.
+     *
+     * @param id          transaction ID
+     * @param status      final status
+     * @param description optional outcome description (e.g. rejection reason)
+     * @return 1 if the transaction was pending and has been updated, 0 otherwise
+     */
+    @Modifying
+    @Query("update Transaction t set t.status = :status, t.description = :description " +
+            "where t.id = :id and t.status = com.annasozonova.bank.model.TransactionStatus.PENDING")
+    int updateStatusIfPending(@Param("id") UUID id,
+                              @Param("status") TransactionStatus status,
+                              @Param("description") String description);
+
+    /**
+     * Retrieves all transactions in the given status.
+     *
+     * @param status transaction status
+     * @return transactions ordered by transfer date, oldest first
+     */
+    List<Transaction> findByStatusOrderByTransferDateAsc(TransactionStatus status);
+
+    /**
+     * Checks whether a transaction was sent from a card of the given user.
+     *
+     * @param id      transaction ID
+     * @param ownerId ID of the user
+     * @return true if the source card of the transaction belongs to the user
+     */
+    boolean existsByIdAndFromCard_Owner_Id(UUID id, UUID ownerId);
 }
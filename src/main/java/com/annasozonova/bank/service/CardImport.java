@@ -0,0 +1,19 @@
+package com.annasozonova.bank.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A card import that has been checked and is ready to run.
+ */
+@FunctionalInterface
+public interface CardImport {
+
+    /**
+     * Reads the input, creates the cards and streams progress and rejected rows as NDJSON.
+     *
+     * @param out target of the progress report; left open
+     * @throws IOException if the input cannot be read or the report cannot be written
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
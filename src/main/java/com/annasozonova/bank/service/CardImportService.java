@@ -0,0 +1,24 @@
+package com.annasozonova.bank.service;
+
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.exception.BusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for issuing many cards from one uploaded file. Accessible by ADMIN.
+ */
+public interface CardImportService {
+
+    /**
+     * Prepares an import of the cards in the given input.
+     *
+     * @param format input format
+     * @param in     uploaded rows; read while the import runs
+     * @return import to be run while streaming its report to the client
+     * @throws IOException       if the CSV header cannot be read
+     * @throws BusinessException if the CSV header lacks a required column
+     */
+    CardImport importCards(CardImportFormat format, InputStream in) throws IOException;
+}
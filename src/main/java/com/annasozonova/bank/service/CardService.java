@@ -1,8 +1,15 @@
 package com.annasozonova.bank.service;
 
+import com.annasozonova.bank.dto.BalanceMismatchDto;
+import com.annasozonova.bank.dto.BulkCardStatusRequest;
+import com.annasozonova.bank.dto.BulkCardStatusResultDto;
+import com.annasozonova.bank.dto.CardContentionDto;
 import com.annasozonova.bank.dto.CardDto;
+import com.annasozonova.bank.dto.CardSliceDto;
 import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.dto.TransactionDto;
 import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.dto.TransferResultDto;
 import com.annasozonova.bank.exception.BusinessException;
 import com.annasozonova.bank.exception.ForbiddenOperationException;
 import com.annasozonova.bank.exception.ResourceNotFoundException;
@@ -11,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -67,7 +75,8 @@ public interface CardService {
      * Returns cards of a specific user with optional filters.
      *
      * @param userId       ID of the card owner
-     * @param maskedNumber optional card number mask
+     * @param maskedNumber optional card number filter; matched by the last four digits it contains,
+     *                     or against the card mask if it has fewer than four digits
      * @param status       optional card status filter
      * @param pageable     pagination settings
      * @return paginated list of user cards
@@ -75,6 +84,32 @@ public interface CardService {
      */
     Page<CardDto> getUserCards(UUID userId, String maskedNumber, CardStatus status, Pageable pageable);
 
+    /**
+     * Returns all cards, newest first, using keyset pagination without a total count.
+     *
+     * @param cursor cursor from the previous slice, or {@code null} for the first slice
+     * @param size   requested slice size (capped at 100)
+     * @return slice of cards with the cursor for the next slice
+     * @throws BusinessException if the cursor is malformed
+     */
+    CardSliceDto getAllCardsSlice(String cursor, int size);
+
+    /**
+     * Returns cards of a specific user with optional filters, newest first,
+     * using keyset pagination without a total count.
+     *
+     * @param userId       ID of the card owner
+     * @param maskedNumber optional card number filter; matched by the last four digits it contains,
+     *                     or against the card mask if it has fewer than four digits
+     * @param status       optional card status filter
+     * @param cursor       cursor from the previous slice, or {@code null} for the first slice
+     * @param size         requested slice size (capped at 100)
+     * @return slice of user cards with the cursor for the next slice
+     * @throws ResourceNotFoundException if the user does not exist
+     * @throws BusinessException         if the cursor or the filter is malformed
+     */
+    CardSliceDto getUserCardsSlice(UUID userId, String maskedNumber, CardStatus status, String cursor, int size);
+
     /**
      * Allows a user to request blocking of their own card.
      *
@@ -95,6 +130,40 @@ public interface CardService {
      */
     void transferFunds(TransferRequest request);
 
+    /**
+     * Transfers funds at most once per idempotency key of the user.
+     * Repeating a request with the same key and payload has no further effect.
+     *
+     * @param userId         ID of the requesting user
+     * @param idempotencyKey client-supplied idempotency key
+     * @param request        transfer details
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if the transfer is not allowed or the key was
+     *                                   already used for a different transfer
+     */
+    void transferFundsIdempotent(UUID userId, String idempotencyKey, TransferRequest request);
+
+    /**
+     * Accepts a transfer for asynchronous execution and returns immediately.
+     * Transfers from the same card are applied in submission order.
+     *
+     * @param request transfer details
+     * @return the recorded transfer in {@code PENDING} status
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if the transfer cannot be accepted
+     */
+    TransactionDto submitTransfer(TransferRequest request);
+
+    /**
+     * Applies a batch of transfers between cards of the given user in one transaction.
+     * Every transfer is validated on its own; rejected transfers do not affect the rest.
+     *
+     * @param userId   ID of the user that must own all cards
+     * @param requests transfers in the order they should be applied
+     * @return one result per transfer, in request order
+     */
+    List<TransferResultDto> transferFundsBatch(UUID userId, List<TransferRequest> requests);
+
     /**
      * Returns the balance of a specific card.
      *
@@ -124,4 +193,44 @@ public interface CardService {
      * @throws ResourceNotFoundException if the card does not exist
      */
     CardDto updateCard(UUID id, CreateCardRequest req);
+
+    /**
+     * Returns the cards that currently cause the most lock waiting and conflicts.
+     * Accessible by ADMIN.
+     *
+     * @param limit maximum number of cards
+     * @return most contended cards first
+     */
+    List<CardContentionDto> getContendedCards(int limit);
+
+    /**
+     * Clears the contention statistics. Accessible by ADMIN.
+     */
+    void resetContentionStats();
+
+    /**
+     * Returns the cards whose stored balance differed from their ledger in the latest
+     * reconciliation run. Accessible by ADMIN.
+     *
+     * @param limit maximum number of cards
+     * @return mismatches, largest difference first
+     */
+    List<BalanceMismatchDto> getBalanceMismatches(int limit);
+
+    /**
+     * Blocks all active cards selected by ID or owner. Accessible by ADMIN.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and blocked cards
+     */
+    BulkCardStatusResultDto bulkBlockCards(BulkCardStatusRequest request);
+
+    /**
+     * Activates all blocked cards selected by ID or owner. Expired cards stay expired.
+     * Accessible by ADMIN.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and activated cards
+     */
+    BulkCardStatusResultDto bulkActivateCards(BulkCardStatusRequest request);
 }
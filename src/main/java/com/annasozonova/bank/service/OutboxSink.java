@@ -0,0 +1,23 @@
+package com.annasozonova.bank.service;
+
+import com.annasozonova.bank.repository.OutboxRepository.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events.
+ * <p>
+ * Every sink bean receives every event at least once: a batch is redelivered to all
+ * sinks if any of them fails, so sinks must tolerate duplicates, e.g. by event ID.
+ * </p>
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events, in outbox order.
+     *
+     * @param events claimed events
+     * @throws RuntimeException if the batch could not be delivered; it is retried later
+     */
+    void deliver(List<OutboxEvent> events);
+}
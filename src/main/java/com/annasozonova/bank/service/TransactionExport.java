@@ -0,0 +1,19 @@
+package com.annasozonova.bank.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A transaction export that has been checked and is ready to be written.
+ */
+@FunctionalInterface
+public interface TransactionExport {
+
+    /**
+     * Streams the exported rows to the given output.
+     *
+     * @param out target stream; left open
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
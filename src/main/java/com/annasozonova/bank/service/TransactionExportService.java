@@ -0,0 +1,32 @@
+package com.annasozonova.bank.service;
+
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+
+import java.util.UUID;
+
+/**
+ * Service interface for full transaction dumps. Accessible by ADMIN.
+ */
+public interface TransactionExportService {
+
+    /**
+     * Prepares an export of all transactions sent or received by a card, oldest first.
+     *
+     * @param cardId ID of the card
+     * @param format output format
+     * @return export to be streamed to the client
+     * @throws ResourceNotFoundException if the card does not exist
+     */
+    TransactionExport exportCardTransactions(UUID cardId, TransactionExportFormat format);
+
+    /**
+     * Prepares an export of all transactions of any card owned by a user, oldest first.
+     *
+     * @param userId ID of the user
+     * @param format output format
+     * @return export to be streamed to the client
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    TransactionExport exportUserTransactions(UUID userId, TransactionExportFormat format);
+}
@@ -0,0 +1,92 @@
+package com.annasozonova.bank.service;
+
+import com.annasozonova.bank.dto.CardStatsDto;
+import com.annasozonova.bank.dto.StatsPeriod;
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionHistoryDto;
+import com.annasozonova.bank.exception.BusinessException;
+import com.annasozonova.bank.exception.ForbiddenOperationException;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for reading the transfer ledger.
+ */
+public interface TransactionService {
+
+    /**
+     * Returns one page of a card's transaction history, newest first.
+     * Accessible by ADMIN.
+     *
+     * @param cardId ID of the card
+     * @param cursor cursor from the previous page, or {@code null} for the first page
+     * @param size   maximum number of transactions on the page
+     * @return page of transactions with the cursor for the next page
+     * @throws ResourceNotFoundException if the card does not exist
+     */
+    TransactionHistoryDto getCardHistory(UUID cardId, String cursor, int size);
+
+    /**
+     * Returns one page of the history of a card owned by the given user.
+     *
+     * @param userId ID of the requesting user
+     * @param cardId ID of the card
+     * @param cursor cursor from the previous page, or {@code null} for the first page
+     * @param size   maximum number of transactions on the page
+     * @return page of transactions with the cursor for the next page
+     * @throws ResourceNotFoundException   if the card does not exist
+     * @throws ForbiddenOperationException if the card does not belong to the user
+     */
+    TransactionHistoryDto getUserCardHistory(UUID userId, UUID cardId, String cursor, int size);
+
+    /**
+     * Returns a single transaction by ID. Accessible by ADMIN.
+     *
+     * @param transactionId ID of the transaction
+     * @return transaction data
+     * @throws ResourceNotFoundException if the transaction does not exist
+     */
+    TransactionDto getTransaction(UUID transactionId);
+
+    /**
+     * Returns a single transaction sent from one of the given user's cards.
+     *
+     * @param userId        ID of the requesting user
+     * @param transactionId ID of the transaction
+     * @return transaction data
+     * @throws ResourceNotFoundException   if the transaction does not exist
+     * @throws ForbiddenOperationException if the source card does not belong to the user
+     */
+    TransactionDto getUserTransaction(UUID userId, UUID transactionId);
+
+    /**
+     * Returns transfer totals of a card per day or month. Accessible by ADMIN.
+     *
+     * @param cardId ID of the card
+     * @param period length of the periods
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return totals of every period with transfers, oldest first
+     * @throws ResourceNotFoundException if the card does not exist
+     * @throws BusinessException         if the date range is invalid or too long
+     */
+    List<CardStatsDto> getCardStats(UUID cardId, StatsPeriod period, LocalDate from, LocalDate to);
+
+    /**
+     * Returns transfer totals per day or month of a card owned by the given user.
+     *
+     * @param userId ID of the requesting user
+     * @param cardId ID of the card
+     * @param period length of the periods
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return totals of every period with transfers, oldest first
+     * @throws ResourceNotFoundException   if the card does not exist
+     * @throws ForbiddenOperationException if the card does not belong to the user
+     * @throws BusinessException           if the date range is invalid or too long
+     */
+    List<CardStatsDto> getUserCardStats(UUID userId, UUID cardId, StatsPeriod period, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,221 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.ReconciliationRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares every card's stored balance with its ledger and records the cards that differ.
+ * <p>
+ * The ledger balance is the sum of all {@code postings} of the card: its opening balance
+ * plus every completed transfer. Postings are used rather than {@code transactions}, which
+ * lose old months when their partitions are archived.
+ * </p>
+ * <p>
+ * The card ID space is split into {@code ranges} equal UUID ranges, checked in parallel on
+ * a fork-join pool of {@code parallelism} threads. Each range walks its cards in chunks and
+ * saves its position after every chunk, so a run interrupted by a restart or an error
+ * resumes where it stopped; a new run starts only once every range is complete.
+ * </p>
+ * <p>
+ * The job shares the connection pool with request traffic, so it stays below
+ * {@code max-cards-per-second} and pauses while requests are waiting for a connection.
+ * </p>
+ */
+@Component
+public class BalanceReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationJob.class);
+
+    private static final long POOL_BUSY_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final ReconciliationRepository reconciliationRepo;
+    private final DataSource dataSource;
+    private final Counter mismatchCounter;
+    private final int rangeCount;
+    private final int parallelism;
+    private final int chunkSize;
+    private final long nanosPerCard;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Card IDs {@code (after, upTo]} checked by one task.
+     */
+    record UuidRange(UUID after, UUID upTo) {
+    }
+
+    @Autowired
+    public BalanceReconciliationJob(ReconciliationRepository reconciliationRepo,
+                                    DataSource dataSource,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${bank.reconciliation.ranges}") int rangeCount,
+                                    @Value("${bank.reconciliation.parallelism}") int parallelism,
+                                    @Value("${bank.reconciliation.chunk-size}") int chunkSize,
+                                    @Value("${bank.reconciliation.max-cards-per-second}") int maxCardsPerSecond) {
+        this.reconciliationRepo = reconciliationRepo;
+        this.dataSource = dataSource;
+        this.mismatchCounter = Counter.builder("bank.reconciliation.mismatches")
+                .description("Cards whose stored balance differs from their ledger")
+                .register(meterRegistry);
+        this.rangeCount = Math.max(1, rangeCount);
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.nanosPerCard = Duration.ofSeconds(1).toNanos() / Math.max(1, maxCardsPerSecond);
+    }
+
+    /**
+     * Continues the unfinished run, or starts a new one if the last run is complete.
+     * Does nothing while a run is already in progress.
+     */
+    @Scheduled(cron = "${bank.reconciliation.cron}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconcile();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    void reconcile() {
+        Map<Integer, ReconciliationRepository.Checkpoint> checkpoints = reconciliationRepo.findCheckpoints();
+        if (checkpoints.size() != rangeCount
+                || checkpoints.values().stream().allMatch(ReconciliationRepository.Checkpoint::completed)) {
+            reconciliationRepo.startRun(rangeCount);
+            checkpoints = reconciliationRepo.findCheckpoints();
+        }
+
+        List<UuidRange> ranges = split(rangeCount);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < rangeCount; i++) {
+            ReconciliationRepository.Checkpoint checkpoint = checkpoints.get(i);
+            if (checkpoint != null && !checkpoint.completed()) {
+                int range = i;
+                tasks.add(() -> reconcileRange(range, ranges.get(range), checkpoint.lastCardId()));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int mismatches = 0;
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                mismatches += result.get();
+            }
+            log.info("Balance reconciliation finished {} ranges, {} mismatches", tasks.size(), mismatches);
+        } catch (ExecutionException ex) {
+            log.warn("Balance reconciliation stopped, will resume from checkpoints: {}", ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks the cards of one range, starting after the checkpoint.
+     *
+     * @return number of mismatches found
+     */
+    private int reconcileRange(int range, UuidRange bounds, UUID checkpoint) {
+        UUID position = checkpoint != null ? checkpoint : bounds.after();
+        int mismatches = 0;
+        while (true) {
+            List<ReconciliationRepository.BalanceCheck> chunk =
+                    reconciliationRepo.findBalances(position, bounds.upTo(), chunkSize);
+            for (ReconciliationRepository.BalanceCheck check : chunk) {
+                if (!check.matches()) {
+                    reconciliationRepo.saveMismatch(check);
+                    mismatchCounter.increment();
+                    mismatches++;
+                    log.warn("Balance mismatch on card {}: stored {}, ledger {}",
+                            check.cardId(), check.stored(), check.ledger());
+                }
+            }
+            boolean completed = chunk.size() < chunkSize;
+            if (!chunk.isEmpty()) {
+                position = chunk.get(chunk.size() - 1).cardId();
+            }
+            reconciliationRepo.saveCheckpoint(range, completed ? bounds.upTo() : position, completed);
+            if (completed) {
+                return mismatches;
+            }
+            throttle(chunk.size());
+        }
+    }
+
+    /**
+     * Waits for this chunk's share of the rate limit, then for the connection pool to have
+     * no waiting requests.
+     */
+    private void throttle(int cards) {
+        long now = System.nanoTime();
+        long end = nextSlot.accumulateAndGet(cards * nanosPerCard, (next, cost) -> Math.max(next, now) + cost);
+        long wait;
+        while ((wait = end - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            checkInterrupted();
+        }
+        while (poolBusy()) {
+            LockSupport.parkNanos(POOL_BUSY_PAUSE_NANOS);
+            checkInterrupted();
+        }
+    }
+
+    private boolean poolBusy() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null && pool.getThreadsAwaitingConnection() > 0;
+        }
+        return false;
+    }
+
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Balance reconciliation interrupted");
+        }
+    }
+
+    /**
+     * Splits the UUID space into ranges of equal size, in PostgreSQL order.
+     *
+     * @param count number of ranges
+     * @return ranges covering every non-nil UUID exactly once
+     */
+    static List<UuidRange> split(int count) {
+        List<UuidRange> ranges = new ArrayList<>(count);
+        long step = Long.divideUnsigned(-1L, count);
+        UUID after = new UUID(0, 0);
+        for (int i = 1; i <= count; i++) {
+            UUID upTo = i == count ? new UUID(-1L, -1L) : new UUID(step * i, 0);
+            ranges.add(new UuidRange(after, upTo));
+            after = upTo;
+        }
+        return ranges;
+    }
+}
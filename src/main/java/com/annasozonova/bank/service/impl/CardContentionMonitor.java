@@ -0,0 +1,158 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardContentionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects cards that serialize traffic.
+ * <p>
+ * Row lock waits and concurrency conflicts are reported per card. All of them feed
+ * the {@code bank.card.lock.wait} timer and {@code bank.card.conflicts} counter; waits
+ * of at least {@code min-wait} and all conflicts also feed a weighted Space-Saving
+ * sketch that keeps the {@code tracked-cards} cards with the most contended time in
+ * bounded memory. A card that is not tracked replaces the least contended one and
+ * inherits its weight as error, so every card whose true total exceeds the smallest
+ * tracked weight is guaranteed to be in the list.
+ * </p>
+ */
+@Component
+public class CardContentionMonitor {
+
+    private final int capacity;
+    private final long minWaitNanos;
+    private final Map<UUID, Entry> entries;
+    private final Timer lockWaitTimer;
+    private final Counter conflictCounter;
+
+    private static final class Entry {
+        private final UUID cardId;
+        private long weightNanos;
+        private long errorNanos;
+        private long maxWaitNanos;
+        private long waits;
+        private long conflicts;
+
+        private Entry(UUID cardId, long errorNanos) {
+            this.cardId = cardId;
+            this.weightNanos = errorNanos;
+            this.errorNanos = errorNanos;
+        }
+    }
+
+    @Autowired
+    public CardContentionMonitor(MeterRegistry meterRegistry,
+                                 @Value("${bank.contention.tracked-cards}") int capacity,
+                                 @Value("${bank.contention.min-wait}") Duration minWait) {
+        this.capacity = Math.max(1, capacity);
+        this.minWaitNanos = minWait.toNanos();
+        this.entries = new HashMap<>(this.capacity * 2);
+        this.lockWaitTimer = Timer.builder("bank.card.lock.wait")
+                .description("Time spent waiting for a single card row lock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("bank.card.conflicts")
+                .description("Lock timeouts, deadlocks and version conflicts on cards")
+                .register(meterRegistry);
+        TimeGauge.builder("bank.card.contention.hottest", this, TimeUnit.NANOSECONDS,
+                        CardContentionMonitor::hottestWeightNanos)
+                .description("Contended time of the most contended tracked card")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records how long acquiring a card's row lock took.
+     *
+     * @param cardId ID of the card
+     * @param nanos  wait time in nanoseconds
+     */
+    public void recordLockWait(UUID cardId, long nanos) {
+        lockWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos < minWaitNanos) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = track(cardId, nanos);
+            entry.waits++;
+            entry.maxWaitNanos = Math.max(entry.maxWaitNanos, nanos);
+        }
+    }
+
+    /**
+     * Records a failed attempt on a card: lock timeout, deadlock or version conflict.
+     *
+     * @param cardId    ID of the card
+     * @param lostNanos time spent on the failed attempt
+     */
+    public void recordConflict(UUID cardId, long lostNanos) {
+        conflictCounter.increment();
+        synchronized (this) {
+            track(cardId, lostNanos).conflicts++;
+        }
+    }
+
+    /**
+     * Returns the most contended tracked cards.
+     *
+     * @param limit maximum number of cards
+     * @return cards ordered by contended time, most contended first
+     */
+    public synchronized List<CardContentionDto> top(int limit) {
+        return entries.values().stream()
+                .sorted(Comparator.comparingLong((Entry e) -> e.weightNanos).reversed())
+                .limit(Math.max(0, limit))
+                .map(e -> new CardContentionDto(
+                        e.cardId,
+                        TimeUnit.NANOSECONDS.toMillis(e.weightNanos),
+                        TimeUnit.NANOSECONDS.toMillis(e.errorNanos),
+                        TimeUnit.NANOSECONDS.toMillis(e.maxWaitNanos),
+                        e.waits,
+                        e.conflicts))
+                .toList();
+    }
+
+    /**
+     * Forgets all tracked cards, e.g. to start a new observation window.
+     */
+    public synchronized void reset() {
+        entries.clear();
+    }
+
+    private Entry track(UUID cardId, long nanos) {
+        Entry entry = entries.get(cardId);
+        if (entry == null) {
+            long inherited = 0;
+            if (entries.size() >= capacity) {
+                Entry victim = entries.values().stream()
+                        .min(Comparator.comparingLong((Entry e) -> e.weightNanos))
+                        .orElseThrow();
+                entries.remove(victim.cardId);
+                inherited = victim.weightNanos;
+            }
+            entry = new Entry(cardId, inherited);
+            entries.put(cardId, entry);
+        }
+        entry.weightNanos += nanos;
+        return entry;
+    }
+
+    private synchronized double hottestWeightNanos() {
+        return entries.values().stream()
+                .mapToLong(e -> e.weightNanos)
+                .max()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.repository.CardStatusRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves active cards past their expiration date to {@link CardStatus#EXPIRED}.
+ * <p>
+ * Each batch claims due cards with {@code FOR UPDATE SKIP LOCKED}, updates them and writes
+ * their outbox events in one transaction. The job can therefore run on every node: concurrent sweeps take disjoint
+ * batches, and cards busy in a transfer are picked up by a later batch or run. Cards are
+ * valid through their expiration date (UTC). Blocked cards keep their status.
+ * </p>
+ */
+@Component
+public class CardExpirationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CardExpirationJob.class);
+
+    private final CardStatusRepository statusRepo;
+    private final OutboxRepository outboxRepo;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+    private final Counter expired;
+    private final Timer batchTimer;
+
+    @Autowired
+    public CardExpirationJob(CardStatusRepository statusRepo,
+                             OutboxRepository outboxRepo,
+                             PlatformTransactionManager txManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${bank.cards.expiration.batch-size}") int batchSize) {
+        this.statusRepo = statusRepo;
+        this.outboxRepo = outboxRepo;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.expired = Counter.builder("bank.cards.expired")
+                .description("Cards moved to EXPIRED by the expiration sweep")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("bank.cards.expiration.batch")
+                .description("Duration of one expiration sweep batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires every active card whose expiration date has passed.
+     */
+    @Scheduled(cron = "${bank.cards.expiration.cron}")
+    public void run() {
+        try {
+            int count = expireBefore(LocalDate.now(ZoneOffset.UTC));
+            if (count > 0) {
+                log.info("Expired {} cards", count);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Card expiration sweep stopped, will resume on the next run: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Expires due cards in batches until a batch comes back short.
+     *
+     * @param today first day on which cards are still valid
+     * @return number of expired cards
+     */
+    int expireBefore(LocalDate today) {
+        int total = 0;
+        int count;
+        do {
+            Integer batch = batchTimer.record(() -> txTemplate.execute(status -> expireBatch(today)));
+            count = batch == null ? 0 : batch;
+            expired.increment(count);
+            total += count;
+        } while (count == batchSize);
+        return total;
+    }
+
+    private int expireBatch(LocalDate today) {
+        List<UUID> ids = statusRepo.expireBefore(today, batchSize);
+        if (!ids.isEmpty()) {
+            outboxRepo.appendCardStatuses(ids, CardStatus.EXPIRED);
+        }
+        return ids.size();
+    }
+}
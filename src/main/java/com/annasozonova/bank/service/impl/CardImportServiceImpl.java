@@ -0,0 +1,268 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardImportErrorDto;
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.dto.CardImportProgressDto;
+import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.repository.CardImportRepository;
+import com.annasozonova.bank.repository.CardImportRepository.NewCard;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.service.CardImport;
+import com.annasozonova.bank.service.CardImportService;
+import com.annasozonova.bank.util.CardCryptoUtil;
+import com.annasozonova.bank.util.CardImportReader;
+import com.annasozonova.bank.util.CardImportReader.Row;
+import com.annasozonova.bank.util.MaskUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CardImportService} implementation that streams rows from the upload into the database.
+ * <p>
+ * The input is read in batches of {@code batch-size} rows, so memory does not depend on
+ * the size of the upload. Per batch, rows are validated with the rules of
+ * {@code POST /api/cards}, owners are resolved with one query, card numbers are encrypted
+ * and masked on a fork-join pool of {@code parallelism} threads, and the cards and their
+ * opening postings are written with JDBC batches in one transaction. Rejected rows are
+ * reported as soon as they are found, followed by a progress line after every batch.
+ * If a batch cannot be saved, it is split in halves and each half is saved on its own,
+ * down to single rows, so only the rows the database rejects are reported, each with
+ * the database's reason. Later batches still run.
+ * </p>
+ */
+@Service
+public class CardImportServiceImpl implements CardImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CardImportServiceImpl.class);
+
+    private final CardImportRepository importRepo;
+    private final LedgerRepository ledgerRepo;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+    private final int parallelism;
+
+    @Autowired
+    public CardImportServiceImpl(CardImportRepository importRepo,
+                                 LedgerRepository ledgerRepo,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager txManager,
+                                 @Value("${bank.cards.import.batch-size}") int batchSize,
+                                 @Value("${bank.cards.import.parallelism}") int parallelism) {
+        this.importRepo = importRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public CardImport importCards(CardImportFormat format, InputStream in) throws IOException {
+        CardImportReader reader = CardImportReader.create(format, in, objectMapper);
+        return out -> {
+            Report report = new Report(out);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try (reader) {
+                List<Row> batch;
+                while (!(batch = reader.nextBatch(batchSize)).isEmpty()) {
+                    importBatch(batch, pool, report);
+                    report.progress(false);
+                }
+                report.progress(true);
+                log.info("Card import finished: {} rows, {} imported, {} rejected",
+                        report.processed, report.imported, report.failed);
+            } finally {
+                pool.shutdownNow();
+            }
+        };
+    }
+
+    private void importBatch(List<Row> rows, ForkJoinPool pool, Report report) throws IOException {
+        report.processed += rows.size();
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                report.reject(row.line(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> owners = importRepo.findExistingUsers(valid.stream()
+                .map(row -> row.request().getUserId())
+                .collect(Collectors.toSet()));
+        List<Row> accepted = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            UUID ownerId = row.request().getUserId();
+            if (owners.contains(ownerId)) {
+                accepted.add(row);
+            } else {
+                report.reject(row.line(), "User not found with id " + ownerId);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        save(accepted, prepare(accepted, pool), report);
+    }
+
+    /**
+     * Saves the cards and their opening postings in one transaction. If that fails, each
+     * half is saved on its own, until the failing rows are isolated and rejected with
+     * the database's reason.
+     *
+     * @param rows  accepted rows
+     * @param cards prepared cards, in the order of {@code rows}
+     */
+    private void save(List<Row> rows, List<NewCard> cards, Report report) throws IOException {
+        Map<UUID, Money> balances = new LinkedHashMap<>();
+        cards.forEach(card -> balances.put(card.id(), card.balance()));
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                importRepo.insertCards(cards);
+                ledgerRepo.insertOpenings(balances);
+            });
+            report.imported += cards.size();
+        } catch (DataAccessException ex) {
+            if (rows.size() == 1) {
+                report.reject(rows.get(0).line(), "Card could not be saved: " + reason(ex));
+                return;
+            }
+            log.debug("Card import of lines {}..{} could not be saved, splitting: {}",
+                    rows.get(0).line(), rows.get(rows.size() - 1).line(), ex.getMessage());
+            int half = rows.size() / 2;
+            save(rows.subList(0, half), cards.subList(0, half), report);
+            save(rows.subList(half, rows.size()), cards.subList(half, cards.size()), report);
+        }
+    }
+
+    /**
+     * Message of the root cause, e.g. the violated constraint, on a single line.
+     */
+    private static String reason(DataAccessException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message == null ? ex.getClass().getSimpleName() : message.replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * Applies the constraints of {@link CreateCardRequest} plus the ones the database
+     * would otherwise enforce for the whole batch.
+     *
+     * @return error message, or {@code null} if the row is valid
+     */
+    private String validate(CreateCardRequest request) {
+        Set<ConstraintViolation<CreateCardRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getInitialBalance().signum() < 0) {
+            return "Initial balance must not be negative";
+        }
+        try {
+            Money.of(request.getInitialBalance());
+        } catch (ArithmeticException ex) {
+            return "Initial balance is out of range";
+        }
+        return null;
+    }
+
+    /**
+     * Encrypts and masks the card numbers, split into one slice per pool thread.
+     */
+    private List<NewCard> prepare(List<Row> rows, ForkJoinPool pool) throws IOException {
+        int sliceSize = (rows.size() + parallelism - 1) / parallelism;
+        List<Callable<List<NewCard>>> tasks = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += sliceSize) {
+            List<Row> slice = rows.subList(start, Math.min(start + sliceSize, rows.size()));
+            tasks.add(() -> slice.stream().map(row -> toNewCard(row.request())).toList());
+        }
+        List<NewCard> cards = new ArrayList<>(rows.size());
+        try {
+            for (Future<List<NewCard>> result : pool.invokeAll(tasks)) {
+                cards.addAll(result.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Card import interrupted");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Card number encryption failed", ex.getCause());
+        }
+        return cards;
+    }
+
+    private static NewCard toNewCard(CreateCardRequest request) {
+        String number = request.getNumber();
+        return new NewCard(UUID.randomUUID(), request.getUserId(), CardCryptoUtil.encrypt(number),
+                MaskUtil.mask(number), MaskUtil.lastFour(number), request.getExpiryDate(),
+                Money.of(request.getInitialBalance()));
+    }
+
+    /**
+     * Running totals and NDJSON output of one import.
+     */
+    private final class Report {
+
+        private final OutputStream out;
+        private long processed;
+        private long imported;
+        private long failed;
+
+        Report(OutputStream out) {
+            this.out = new BufferedOutputStream(out);
+        }
+
+        void reject(long line, String error) throws IOException {
+            failed++;
+            write(new CardImportErrorDto(line, error));
+        }
+
+        void progress(boolean finished) throws IOException {
+            write(new CardImportProgressDto(processed, imported, failed, finished));
+            out.flush();
+        }
+
+        private void write(Object value) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        }
+    }
+}
@@ -6,22 +6,57 @@ import com.annasozonova.bank.exception.ForbiddenOperationException;
 import com.annasozonova.bank.exception.ResourceNotFoundException;
 import com.annasozonova.bank.model.Card;
 import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.model.Transaction;
+import com.annasozonova.bank.model.TransactionStatus;
 import com.annasozonova.bank.model.User;
+import com.annasozonova.bank.repository.CardOwnershipRepository;
+import com.annasozonova.bank.repository.CardOwnershipRepository.BalanceResult;
+import com.annasozonova.bank.repository.CardOwnershipRepository.BlockResult;
 import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.CardSnapshot;
+import com.annasozonova.bank.repository.CardStatusRepository;
+import com.annasozonova.bank.repository.CardSummary;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.ReconciliationRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
 import com.annasozonova.bank.repository.UserRepository;
 import com.annasozonova.bank.service.CardService;
+import com.annasozonova.bank.util.CardCryptoUtil;
 import com.annasozonova.bank.util.CardMapper;
+import com.annasozonova.bank.util.CursorCodec;
+import com.annasozonova.bank.util.MaskUtil;
+import com.annasozonova.bank.util.TransactionMapper;
+import com.annasozonova.bank.util.UuidOrdering;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * {@link CardService} implementation that handles business logic
@@ -30,17 +65,80 @@ import java.util.UUID;
 @Service
 public class CardServiceImpl implements CardService {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int MAX_SLICE_SIZE = 100;
+
+    /**
+     * Keyset position after every card, used for the first slice: PostgreSQL compares
+     * UUIDs as unsigned bytes, so no ID sorts above all ones.
+     */
+    private static final CursorCodec.Position SLICE_START = new CursorCodec.Position(
+            OffsetDateTime.parse("9999-12-31T23:59:59Z"), new UUID(-1L, -1L));
+    private static final Logger log = LoggerFactory.getLogger(CardServiceImpl.class);
+
     private final CardRepository cardRepo;
+    private final CardOwnershipRepository ownershipRepo;
+    private final CardStatusRepository statusRepo;
     private final UserRepository userRepo;
+    private final TransactionRepository txRepo;
+    private final LedgerRepository ledgerRepo;
+    private final ReconciliationRepository reconciliationRepo;
+    private final OutboxRepository outboxRepo;
+    private final TransferEngine transferEngine;
+    private final TransferLanes transferLanes;
+    private final TransferGroupCommitter groupCommitter;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate txTemplate;
+    private final ConcurrencyRetryPolicy retryPolicy;
+    private final CardContentionMonitor contentionMonitor;
+    private final Counter idempotentReplays;
+    private final TransferMode transferMode;
+    private final int bulkChunkSize;
 
     @Autowired
-    public CardServiceImpl(CardRepository cardRepo, UserRepository userRepo) {
+    public CardServiceImpl(CardRepository cardRepo,
+                           CardOwnershipRepository ownershipRepo,
+                           CardStatusRepository statusRepo,
+                           UserRepository userRepo,
+                           TransactionRepository txRepo,
+                           LedgerRepository ledgerRepo,
+                           ReconciliationRepository reconciliationRepo,
+                           OutboxRepository outboxRepo,
+                           TransferEngine transferEngine,
+                           TransferLanes transferLanes,
+                           TransferGroupCommitter groupCommitter,
+                           IdempotencyStore idempotencyStore,
+                           ConcurrencyRetryPolicy retryPolicy,
+                           CardContentionMonitor contentionMonitor,
+                           PlatformTransactionManager txManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${bank.transfer.mode}") TransferMode transferMode,
+                           @Value("${bank.cards.bulk.chunk-size}") int bulkChunkSize) {
         this.cardRepo = cardRepo;
+        this.ownershipRepo = ownershipRepo;
+        this.statusRepo = statusRepo;
         this.userRepo = userRepo;
+        this.txRepo = txRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.reconciliationRepo = reconciliationRepo;
+        this.outboxRepo = outboxRepo;
+        this.transferEngine = transferEngine;
+        this.transferLanes = transferLanes;
+        this.groupCommitter = groupCommitter;
+        this.idempotencyStore = idempotencyStore;
+        this.retryPolicy = retryPolicy;
+        this.contentionMonitor = contentionMonitor;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.idempotentReplays = Counter.builder("bank.transfer.idempotent.replays")
+                .description("Repeated transfer requests answered from an idempotency key")
+                .register(meterRegistry);
+        this.transferMode = transferMode;
+        this.bulkChunkSize = Math.max(1, bulkChunkSize);
     }
 
     /**
-     * Creates a new card for the given user.
+     * Creates a new card for the given user and posts its initial balance as
+     * the card's {@code OPENING} ledger entry.
      *
      * @param req creation request
      * @return created card
@@ -51,35 +149,78 @@ public class CardServiceImpl implements CardService {
         User owner = userRepo.findById(req.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + req.getUserId()));
         Card entity = CardMapper.toEntity(req, owner);
-        return CardMapper.toDto(cardRepo.save(entity));
+        Card created = txTemplate.execute(status -> {
+            Card card = cardRepo.saveAndFlush(entity);
+            ledgerRepo.insertOpening(card.getId(), card.getBalance());
+            return card;
+        });
+        return CardMapper.toDto(created);
     }
 
     /**
-     * Sets the card status to BLOCKED.
+     * Sets the card status to BLOCKED and records a {@code CARD_BLOCKED} outbox event
+     * in the same transaction if the status changed.
      *
      * @param cardID ID of the card
      * @throws ResourceNotFoundException if card does not exist
      */
     @Override
     public void blockCard(UUID cardID) {
-        Card card = cardRepo.findById(cardID)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardID));
-        card.setStatus(CardStatus.BLOCKED);
-        cardRepo.save(card);
+        updateWithRetry(cardID, () -> {
+            Card card = cardRepo.findById(cardID)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardID));
+            changeStatus(card, CardStatus.BLOCKED);
+            return card;
+        });
     }
 
     /**
-     * Sets the card status to ACTIVE.
+     * Sets the card status to ACTIVE and records a {@code CARD_ACTIVATED} outbox event
+     * in the same transaction if the status changed.
      *
      * @param cardId ID of the card
      * @throws ResourceNotFoundException if card does not exist
      */
     @Override
     public void activateCard(UUID cardId) {
-        Card card = cardRepo.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
-        card.setStatus(CardStatus.ACTIVE);
-        cardRepo.save(card);
+        updateWithRetry(cardId, () -> {
+            Card card = cardRepo.findById(cardId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
+            changeStatus(card, CardStatus.ACTIVE);
+            return card;
+        });
+    }
+
+    private void changeStatus(Card card, CardStatus status) {
+        if (card.getStatus() != status) {
+            card.setStatus(status);
+            outboxRepo.appendCardStatus(card.getId(), status);
+        }
+    }
+
+    /**
+     * Runs a read-modify-write of one card in its own transaction.
+     * <p>
+     * The card is read without a row lock; its {@code @Version} makes the commit fail
+     * if another transaction changed the card in between, and the whole step is then
+     * retried on fresh state by {@link ConcurrencyRetryPolicy}. Lost attempts are
+     * reported to {@link CardContentionMonitor}.
+     * </p>
+     */
+    private Card updateWithRetry(UUID cardId, Supplier<Card> update) {
+        return retryPolicy.execute("card.update", () -> {
+            long start = System.nanoTime();
+            try {
+                return txTemplate.execute(status -> {
+                    Card card = update.get();
+                    cardRepo.flush();
+                    return card;
+                });
+            } catch (ConcurrencyFailureException ex) {
+                contentionMonitor.recordConflict(cardId, System.nanoTime() - start);
+                throw ex;
+            }
+        });
     }
 
     /**
@@ -105,14 +246,16 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public Page<CardDto> getAllCards(Pageable pageable) {
-        return cardRepo.findAll(pageable).map(CardMapper::toDto);
+        return cardRepo.findAllSummaries(pageable).map(CardMapper::toDto);
     }
 
     /**
      * Returns user cards with optional filters.
+     * The card number filter matches the last four digits it contains; a filter with
+     * fewer than four digits is matched against the card mask instead.
      *
      * @param userId       ID of the user
-     * @param maskedNumber optional card mask filter
+     * @param maskedNumber optional card number filter, e.g. "5678" or "**** **** **** 5678"
      * @param status       optional card status
      * @param pageable     pagination options
      * @return paginated list of matching cards
@@ -120,21 +263,126 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public Page<CardDto> getUserCards(UUID userId, String maskedNumber, CardStatus status, Pageable pageable) {
+        String last4 = maskedNumber == null ? null : MaskUtil.lastFourDigits(maskedNumber);
+        String mask = maskedNumber != null && last4 == null ? maskPattern(maskedNumber) : null;
         userRepo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + userId));
 
-        Page<Card> page = switch ((maskedNumber != null ? 1 : 0) + (status != null ? 2 : 0)) {
-            case 3 -> cardRepo.findByOwner_IdAndCardMaskContainingIgnoreCaseAndStatus(userId, maskedNumber, status, pageable);
-            case 1 -> cardRepo.findByOwner_IdAndCardMaskContainingIgnoreCase(userId, maskedNumber, pageable);
-            case 2 -> cardRepo.findByOwner_IdAndStatus(userId, status, pageable);
-            default -> cardRepo.findByOwner_Id(userId, pageable);
+        Page<CardSummary> page = switch (numberFilter(last4, mask) + (status != null ? 2 : 0)) {
+            case 3 -> cardRepo.findSummariesByOwnerAndLast4AndStatus(userId, last4, status, pageable);
+            case 1 -> cardRepo.findSummariesByOwnerAndLast4(userId, last4, pageable);
+            case 6 -> cardRepo.findSummariesByOwnerAndMaskLikeAndStatus(userId, mask, status, pageable);
+            case 4 -> cardRepo.findSummariesByOwnerAndMaskLike(userId, mask, pageable);
+            case 2 -> cardRepo.findSummariesByOwnerAndStatus(userId, status, pageable);
+            default -> cardRepo.findSummariesByOwner(userId, pageable);
         };
 
         return page.map(CardMapper::toDto);
     }
 
+    /**
+     * Returns all cards, newest first, one keyset slice at a time.
+     * <p>
+     * Each slice is a single range scan of {@code idx_cards_created_id} starting at the
+     * cursor position, so its cost does not depend on how deep the client has paged
+     * and no {@code count(*)} is run.
+     * </p>
+     *
+     * @param cursor cursor from the previous slice, or {@code null} for the first slice
+     * @param size   requested slice size (capped at 100)
+     * @return slice of cards with the cursor for the next slice
+     * @throws BusinessException if the cursor is malformed
+     */
+    @Override
+    public CardSliceDto getAllCardsSlice(String cursor, int size) {
+        CursorCodec.Position position = slicePosition(cursor);
+        int sliceSize = sliceSize(size);
+        return toSlice(cardRepo.findAllBefore(position.timestamp(), position.id(), Limit.of(sliceSize + 1)), sliceSize);
+    }
+
+    /**
+     * Returns user cards with optional filters, newest first, one keyset slice at a time.
+     *
+     * @param userId       ID of the user
+     * @param maskedNumber optional card number filter, e.g. "5678" or "**** **** **** 5678"
+     * @param status       optional card status
+     * @param cursor       cursor from the previous slice, or {@code null} for the first slice
+     * @param size         requested slice size (capped at 100)
+     * @return slice of matching cards with the cursor for the next slice
+     * @throws ResourceNotFoundException if user does not exist
+     * @throws BusinessException         if the cursor is malformed
+     */
+    @Override
+    public CardSliceDto getUserCardsSlice(UUID userId, String maskedNumber, CardStatus status,
+                                          String cursor, int size) {
+        String last4 = maskedNumber == null ? null : MaskUtil.lastFourDigits(maskedNumber);
+        String mask = maskedNumber != null && last4 == null ? maskPattern(maskedNumber) : null;
+        CursorCodec.Position position = slicePosition(cursor);
+        int sliceSize = sliceSize(size);
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+
+        OffsetDateTime createdAt = position.timestamp();
+        UUID id = position.id();
+        Limit limit = Limit.of(sliceSize + 1);
+        List<CardSummary> cards = switch (numberFilter(last4, mask) + (status != null ? 2 : 0)) {
+            case 3 -> cardRepo.findByOwnerAndLast4AndStatusBefore(userId, last4, status, createdAt, id, limit);
+            case 1 -> cardRepo.findByOwnerAndLast4Before(userId, last4, createdAt, id, limit);
+            case 6 -> cardRepo.findByOwnerAndMaskLikeAndStatusBefore(userId, mask, status, createdAt, id, limit);
+            case 4 -> cardRepo.findByOwnerAndMaskLikeBefore(userId, mask, createdAt, id, limit);
+            case 2 -> cardRepo.findByOwnerAndStatusBefore(userId, status, createdAt, id, limit);
+            default -> cardRepo.findByOwnerBefore(userId, createdAt, id, limit);
+        };
+        return toSlice(cards, sliceSize);
+    }
+
+    /**
+     * Selects the card number query: 1 for the indexed last-four match, 4 for the mask
+     * pattern fallback, 0 without a filter.
+     */
+    private static int numberFilter(String last4, String mask) {
+        return last4 != null ? 1 : mask != null ? 4 : 0;
+    }
+
+    /**
+     * Turns a filter with fewer than four digits into a {@code LIKE} pattern matching
+     * masks that contain it, as card search did before the {@code last4} column.
+     */
+    private static String maskPattern(String maskedNumber) {
+        return "%" + maskedNumber.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static CursorCodec.Position slicePosition(String cursor) {
+        return cursor == null || cursor.isBlank() ? SLICE_START : CursorCodec.decode(cursor);
+    }
+
+    private static int sliceSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+    }
+
+    /**
+     * Builds a slice from up to {@code sliceSize + 1} cards; the extra card only
+     * signals that another slice exists.
+     */
+    private static CardSliceDto toSlice(List<CardSummary> cards, int sliceSize) {
+        boolean hasNext = cards.size() > sliceSize;
+        List<CardSummary> slice = hasNext ? cards.subList(0, sliceSize) : cards;
+        String nextCursor = null;
+        if (hasNext) {
+            CardSummary last = slice.get(slice.size() - 1);
+            nextCursor = CursorCodec.encode(last.createdAt(), last.id());
+        }
+        return new CardSliceDto(slice.stream().map(CardMapper::toDto).toList(), nextCursor, hasNext);
+    }
+
     /**
      * Allows a user to request blocking their own card.
+     * <p>
+     * Ownership check and status change are a single statement
+     * ({@link CardOwnershipRepository#blockIfOwned(UUID, UUID)}); the {@code CARD_BLOCKED}
+     * outbox event is added in the same transaction only if the status changed.
+     * </p>
      *
      * @param userId ID of the user
      * @param cardId ID of the card
@@ -143,55 +391,242 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public void requestBlockCard(UUID userId, UUID cardId) {
-        Card card = cardRepo.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
-        if (!card.getOwner().getId().equals(userId)) {
-            throw new ForbiddenOperationException("You are not allowed to block this card");
+        BlockResult result = retryPolicy.execute("card.update", () -> txTemplate.execute(status -> {
+            BlockResult blocked = ownershipRepo.blockIfOwned(cardId, userId);
+            if (blocked == BlockResult.BLOCKED) {
+                outboxRepo.appendCardStatus(cardId, CardStatus.BLOCKED);
+            }
+            return blocked;
+        }));
+        switch (result) {
+            case NOT_FOUND -> throw new ResourceNotFoundException("Card not found with id " + cardId);
+            case FORBIDDEN -> throw new ForbiddenOperationException("You are not allowed to block this card");
+            case BLOCKED, ALREADY_BLOCKED -> {
+            }
         }
-        card.setStatus(CardStatus.BLOCKED);
-        cardRepo.save(card);
     }
 
     /**
      * Performs an atomic funds transfer between two cards.
+     * <p>
+     * The transfer runs in {@link TransferEngine}, either row-locking both cards in a
+     * deterministic order or as two conditional updates, depending on {@link TransferMode}.
+     * Lock timeouts and deadlocks are transient under contention, so the whole
+     * transaction is retried a bounded number of times.
+     * </p>
+     * <p>
+     * With group commit enabled, the transfer is instead handed to
+     * {@link TransferGroupCommitter} and this call returns once its group has committed.
+     * </p>
      *
      * @param request transfer details
      * @throws ResourceNotFoundException if either card does not exist
      * @throws BusinessException         if transfer is not allowed
      */
     @Override
-    @Transactional
     public void transferFunds(TransferRequest request) {
-        UUID fromCardId = request.getFromCardId();
-        UUID toCardId = request.getToCardId();
-        BigDecimal amount = request.getAmount();
+        if (groupCommitter.isEnabled()) {
+            withLockRetry(() -> awaitGroupCommit(request));
+            return;
+        }
+        withLockRetry(() -> {
+            applyTransfer(request);
+            return null;
+        });
+    }
+
+    private Void awaitGroupCommit(TransferRequest request) {
+        try {
+            return groupCommitter.submit(request).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", ex);
+        }
+    }
+
+    /**
+     * Performs a transfer at most once per idempotency key.
+     * <p>
+     * A key seen before is answered from {@link IdempotencyStore} without touching
+     * the cards. A new key is claimed in the transfer transaction; if a concurrent
+     * request with the same key wins the claim, this call returns as its duplicate.
+     * </p>
+     *
+     * @param userId         ID of the requesting user
+     * @param idempotencyKey client-supplied idempotency key
+     * @param request        transfer details
+     * @throws BusinessException if the key was already used for a different transfer
+     */
+    @Override
+    public void transferFundsIdempotent(UUID userId, String idempotencyKey, TransferRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be 1 to "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters long");
+        }
+        String requestHash = IdempotencyStore.fingerprint(request);
+
+        if (replayed(userId, idempotencyKey, requestHash)) {
+            return;
+        }
+        try {
+            withLockRetry(() -> txTemplate.execute(status -> {
+                if (!idempotencyStore.claim(userId, idempotencyKey, requestHash)) {
+                    throw new KeyAlreadyClaimedException();
+                }
+                applyTransfer(request);
+                return null;
+            }));
+        } catch (KeyAlreadyClaimedException ex) {
+            if (replayed(userId, idempotencyKey, requestHash)) {
+                return;
+            }
+            throw new BusinessException("A request with this Idempotency-Key is already being processed");
+        }
+        idempotencyStore.remember(userId, idempotencyKey, requestHash);
+    }
+
+    private boolean replayed(UUID userId, String idempotencyKey, String requestHash) {
+        Optional<String> knownHash = idempotencyStore.find(userId, idempotencyKey);
+        if (knownHash.isEmpty()) {
+            return false;
+        }
+        if (!knownHash.get().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used for a different transfer");
+        }
+        idempotentReplays.increment();
+        return true;
+    }
+
+    private void applyTransfer(TransferRequest request) {
+        applyTransfer(request, null);
+    }
 
-        Card fromCard = cardRepo.findById(fromCardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Source card not found"));
-        Card toCard = cardRepo.findById(toCardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Target card not found"));
+    private void applyTransfer(TransferRequest request, UUID pendingTransactionId) {
+        if (transferMode == TransferMode.CONDITIONAL_UPDATE) {
+            transferEngine.transferConditional(request, pendingTransactionId);
+        } else {
+            transferEngine.transfer(request, pendingTransactionId);
+        }
+    }
 
-        if (!fromCard.getOwner().getId().equals(toCard.getOwner().getId())) {
-            throw new BusinessException("Cards do not belong to the same user");
+    /**
+     * Accepts a transfer for asynchronous execution.
+     * <p>
+     * A {@code PENDING} ledger row is committed first and its ID is returned to the
+     * client. The transfer is then queued on the {@link TransferLanes} lane of its
+     * source card and applied there; the ledger row ends up {@code COMPLETED}, or
+     * {@code FAILED} with the rejection reason as description.
+     * </p>
+     *
+     * @param request transfer details
+     * @return pending transaction
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if the transfer cannot be queued
+     */
+    @Override
+    public TransactionDto submitTransfer(TransferRequest request) {
+        if (request.getFromCardId().equals(request.getToCardId())) {
+            throw new BusinessException("Source and target cards must be different");
         }
+        Transaction pending = txTemplate.execute(status -> {
+            if (!cardRepo.existsById(request.getFromCardId())) {
+                throw new ResourceNotFoundException("Source card not found");
+            }
+            if (!cardRepo.existsById(request.getToCardId())) {
+                throw new ResourceNotFoundException("Target card not found");
+            }
+            return txRepo.save(Transaction.builder()
+                    .fromCard(cardRepo.getReferenceById(request.getFromCardId()))
+                    .toCard(cardRepo.getReferenceById(request.getToCardId()))
+                    .amount(Money.of(request.getAmount()))
+                    .status(TransactionStatus.PENDING)
+                    .build());
+        });
 
-        if (fromCard.getStatus() != CardStatus.ACTIVE || toCard.getStatus() != CardStatus.ACTIVE) {
-            throw new BusinessException("Both cards must be active");
+        enqueue(pending.getId(), request);
+        return TransactionMapper.toDto(pending);
+    }
+
+    /**
+     * Re-queues transfers left {@code PENDING} by a previous run of the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingTransfers() {
+        for (Transaction tx : txRepo.findByStatusOrderByTransferDateAsc(TransactionStatus.PENDING)) {
+            TransferRequest request = new TransferRequest(
+                    tx.getFromCard().getId(), tx.getToCard().getId(), tx.getAmount().toBigDecimal());
+            try {
+                enqueue(tx.getId(), request);
+            } catch (BusinessException ex) {
+                log.warn("Could not resume pending transfer {}: {}", tx.getId(), ex.getMessage());
+            }
         }
+    }
 
-        if (fromCard.getBalance().compareTo(amount) < 0) {
-            throw new BusinessException("Insufficient funds on source card");
+    private void enqueue(UUID transactionId, TransferRequest request) {
+        try {
+            transferLanes.submit(request.getFromCardId(), () -> completePending(transactionId, request));
+        } catch (RejectedExecutionException ex) {
+            markFailed(transactionId, "Transfer queue is full");
+            throw new BusinessException("Too many pending transfers, please retry later");
         }
+    }
 
-        fromCard.setBalance(fromCard.getBalance().subtract(amount));
-        toCard.setBalance(toCard.getBalance().add(amount));
+    private void completePending(UUID transactionId, TransferRequest request) {
+        try {
+            withLockRetry(() -> {
+                applyTransfer(request, transactionId);
+                return null;
+            });
+        } catch (BusinessException | ResourceNotFoundException ex) {
+            markFailed(transactionId, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Asynchronous transfer {} failed", transactionId, ex);
+            markFailed(transactionId, "Unexpected error");
+        }
+    }
 
-        cardRepo.save(fromCard);
-        cardRepo.save(toCard);
+    private void markFailed(UUID transactionId, String reason) {
+        txTemplate.executeWithoutResult(status ->
+                txRepo.updateStatusIfPending(transactionId, TransactionStatus.FAILED, reason));
     }
 
     /**
-     * Returns the balance of a user’s card.
+     * Applies a batch of transfers between cards of one user.
+     * All cards are locked once and the batch commits as one transaction.
+     *
+     * @param userId   ID of the user that must own all cards
+     * @param requests transfers in the order they should be applied
+     * @return one result per transfer, in request order
+     */
+    @Override
+    public List<TransferResultDto> transferFundsBatch(UUID userId, List<TransferRequest> requests) {
+        return withLockRetry(() -> transferEngine.transferBatch(userId, requests));
+    }
+
+    private <T> T withLockRetry(Supplier<T> action) {
+        return retryPolicy.execute("transfer", action);
+    }
+
+    /**
+     * Signals that another request already claimed the idempotency key.
+     * Thrown inside the transfer transaction to roll it back.
+     */
+    private static class KeyAlreadyClaimedException extends RuntimeException {
+        KeyAlreadyClaimedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Returns the balance of a user’s card, derived from the ledger: the card's
+     * latest balance snapshot plus the postings made since. Ownership check and
+     * balance are a single statement ({@link CardOwnershipRepository#balanceIfOwned(UUID, UUID)}).
      *
      * @param userId ID of the user
      * @param cardId ID of the card
@@ -201,16 +636,16 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public BigDecimal getCardBalance(UUID userId, UUID cardId) {
-        Card card = cardRepo.findById(cardId)
+        BalanceResult result = ownershipRepo.balanceIfOwned(cardId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
-        if (!card.getOwner().getId().equals(userId)) {
+        if (!result.owned()) {
             throw new ForbiddenOperationException("You are not allowed to view this card balance");
         }
-        return card.getBalance();
+        return result.balance().toBigDecimal();
     }
 
     /**
-     * Returns a card by ID.
+     * Returns a card by ID, read as a {@link CardSnapshot} projection.
      *
      * @param id card ID
      * @return card data
@@ -218,13 +653,15 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public CardDto getCardById(UUID id) {
-        Card card = cardRepo.findById(id)
+        return cardRepo.findSnapshot(id)
+                .map(CardMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + id));
-        return CardMapper.toDto(card);
     }
 
     /**
-     * Updates basic fields of an existing card.
+     * Updates basic fields of an existing card. Runs without an outer transaction, so
+     * each attempt of {@link #updateWithRetry} commits on its own and a retry after a
+     * version conflict re-reads the card.
      *
      * @param id  card ID
      * @param req update request
@@ -232,13 +669,107 @@ public class CardServiceImpl implements CardService {
      * @throws ResourceNotFoundException if card does not exist
      */
     @Override
-    @Transactional
     public CardDto updateCard(UUID id, CreateCardRequest req) {
-        Card card = cardRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + id));
-        card.setCardMask(req.getNumber());
-        card.setExpirationDate(req.getExpiryDate());
-        card.setUpdatedAt(OffsetDateTime.now());
-        return CardMapper.toDto(cardRepo.save(card));
+        return CardMapper.toDto(updateWithRetry(id, () -> {
+            Card card = cardRepo.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + id));
+            card.setCardNumberEnc(CardCryptoUtil.encrypt(req.getNumber()));
+            card.setCardMask(MaskUtil.mask(req.getNumber()));
+            card.setLast4(MaskUtil.lastFour(req.getNumber()));
+            card.setExpirationDate(req.getExpiryDate());
+            card.setUpdatedAt(OffsetDateTime.now());
+            return card;
+        }));
+    }
+
+    /**
+     * Returns the most contended cards tracked by {@link CardContentionMonitor}.
+     *
+     * @param limit maximum number of cards
+     * @return most contended cards first
+     */
+    @Override
+    public List<CardContentionDto> getContendedCards(int limit) {
+        return contentionMonitor.top(limit);
+    }
+
+    /**
+     * Clears the statistics of {@link CardContentionMonitor}.
+     */
+    @Override
+    public void resetContentionStats() {
+        contentionMonitor.reset();
+    }
+
+    /**
+     * Returns the mismatches recorded by {@link BalanceReconciliationJob}.
+     *
+     * @param limit maximum number of cards
+     * @return mismatches, largest difference first
+     */
+    @Override
+    public List<BalanceMismatchDto> getBalanceMismatches(int limit) {
+        return reconciliationRepo.findMismatches(Math.max(1, Math.min(limit, 1000)));
+    }
+
+    /**
+     * Blocks all active cards selected by ID or owner.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and blocked cards
+     * @throws BusinessException if neither card IDs nor owner IDs are given
+     */
+    @Override
+    public BulkCardStatusResultDto bulkBlockCards(BulkCardStatusRequest request) {
+        return bulkChangeStatus(request, CardStatus.ACTIVE, CardStatus.BLOCKED);
+    }
+
+    /**
+     * Activates all blocked cards selected by ID or owner.
+     *
+     * @param request card IDs and/or owner IDs
+     * @return number of selected and activated cards
+     * @throws BusinessException if neither card IDs nor owner IDs are given
+     */
+    @Override
+    public BulkCardStatusResultDto bulkActivateCards(BulkCardStatusRequest request) {
+        return bulkChangeStatus(request, CardStatus.BLOCKED, CardStatus.ACTIVE);
+    }
+
+    /**
+     * Moves the selected cards from {@code from} to {@code to} with one set-based
+     * update per chunk of {@code bank.cards.bulk.chunk-size} IDs.
+     * <p>
+     * IDs are sorted in PostgreSQL order, so chunks lock their rows in the same order
+     * as transfers do. Each chunk is its own transaction, retried on lock timeouts,
+     * that also writes the outbox events of the changed cards. If a chunk fails for good, earlier chunks stay applied;
+     * repeating the request only changes the remaining cards.
+     * </p>
+     */
+    private BulkCardStatusResultDto bulkChangeStatus(BulkCardStatusRequest request, CardStatus from, CardStatus to) {
+        List<UUID> cardIds = Optional.ofNullable(request.getCardIds()).orElse(List.of());
+        List<UUID> ownerIds = Optional.ofNullable(request.getOwnerIds()).orElse(List.of());
+        if (cardIds.isEmpty() && ownerIds.isEmpty()) {
+            throw new BusinessException("Card IDs or owner IDs must be provided");
+        }
+        Set<UUID> selected = new LinkedHashSet<>(cardIds);
+        if (!ownerIds.isEmpty()) {
+            selected.addAll(statusRepo.findIdsByOwners(ownerIds));
+        }
+        List<UUID> ordered = selected.stream().sorted(UuidOrdering.POSTGRES_ORDER).toList();
+
+        int updated = 0;
+        for (int start = 0; start < ordered.size(); start += bulkChunkSize) {
+            List<UUID> chunk = ordered.subList(start, Math.min(start + bulkChunkSize, ordered.size()));
+            updated += retryPolicy.execute("card.update", () -> txTemplate.execute(status -> {
+                List<UUID> changed = statusRepo.updateStatus(chunk, from, to);
+                if (!changed.isEmpty()) {
+                    outboxRepo.appendCardStatuses(changed, to);
+                }
+                return changed.size();
+            }));
+        }
+        log.info("Bulk status change {} -> {}: {} cards selected, {} updated", from, to, selected.size(), updated);
+        return new BulkCardStatusResultDto(selected.size(), updated);
     }
 }
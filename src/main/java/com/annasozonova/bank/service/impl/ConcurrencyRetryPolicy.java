@@ -0,0 +1,116 @@
+package com.annasozonova.bank.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry for transactions that lost a race on a card row.
+ * <p>
+ * An action is retried when it fails with a {@link ConcurrencyFailureException}: an
+ * optimistic version conflict, a lock timeout or a deadlock. Each action must be a whole
+ * transaction, so a retry re-reads fresh state. Backoff grows exponentially and is fully
+ * jittered, so conflicting callers do not collide again in lockstep.
+ * </p>
+ * <p>
+ * Retries are additionally limited by a shared budget: every call earns
+ * {@code budget-ratio} of a retry token and every retry spends one, up to
+ * {@code budget-max-tokens} saved. Under sustained contention the retry rate therefore
+ * stays a fixed fraction of the call rate instead of multiplying the load.
+ * </p>
+ */
+@Component
+public class ConcurrencyRetryPolicy {
+
+    private static final long TOKEN_SCALE = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long tokensPerCall;
+    private final long maxTokens;
+    private final AtomicLong budget;
+
+    @Autowired
+    public ConcurrencyRetryPolicy(MeterRegistry meterRegistry,
+                                  @Value("${bank.retry.max-attempts}") int maxAttempts,
+                                  @Value("${bank.retry.initial-backoff}") Duration initialBackoff,
+                                  @Value("${bank.retry.max-backoff}") Duration maxBackoff,
+                                  @Value("${bank.retry.budget-ratio}") double budgetRatio,
+                                  @Value("${bank.retry.budget-max-tokens}") int budgetMaxTokens) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMs = Math.max(initialBackoffMs, maxBackoff.toMillis());
+        this.tokensPerCall = Math.round(budgetRatio * TOKEN_SCALE);
+        this.maxTokens = budgetMaxTokens * TOKEN_SCALE;
+        this.budget = new AtomicLong(maxTokens);
+    }
+
+    /**
+     * Runs the action, retrying it on concurrency failures within the attempt limit and budget.
+     *
+     * @param operation name of the operation, used as metric tag
+     * @param action    transactional action to run
+     * @param <T>       result type
+     * @return result of the first successful attempt
+     * @throws ConcurrencyFailureException the last failure if no attempt succeeded
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException ex) {
+                counter("bank.retry.conflicts", operation, "type",
+                        ex instanceof OptimisticLockingFailureException ? "optimistic" : "lock").increment();
+                if (attempt >= maxAttempts) {
+                    counter("bank.retry.failures", operation, "reason", "attempts").increment();
+                    throw ex;
+                }
+                if (!withdraw()) {
+                    counter("bank.retry.failures", operation, "reason", "budget").increment();
+                    throw ex;
+                }
+                counter("bank.retry.retries", operation, "attempt", Integer.toString(attempt + 1)).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void deposit() {
+        budget.getAndUpdate(tokens -> Math.min(maxTokens, tokens + tokensPerCall));
+    }
+
+    private boolean withdraw() {
+        long before = budget.getAndUpdate(tokens -> tokens >= TOKEN_SCALE ? tokens - TOKEN_SCALE : tokens);
+        return before >= TOKEN_SCALE;
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private Counter counter(String name, String operation, String tagKey, String tagValue) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.OutboxRepository.OutboxEvent;
+import com.annasozonova.bank.service.OutboxSink;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * {@link OutboxSink} that appends events as NDJSON lines to a local file.
+ * <p>
+ * Meant for development and testing. Each batch is written with one call and forced
+ * to disk before it is acknowledged, so a crash can repeat a batch but not lose it.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "bank.outbox.file-sink.enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Path file;
+
+    @Autowired
+    public FileOutboxSink(@Value("${bank.outbox.file-sink.path}") Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            try (JsonGenerator json = JSON.createGenerator(lines, JsonEncoding.UTF8)) {
+                json.setRootValueSeparator(null);
+                for (OutboxEvent event : events) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", event.id());
+                    json.writeStringField("type", event.type());
+                    json.writeStringField("aggregateId", event.aggregateId().toString());
+                    json.writeStringField("createdAt", event.createdAt().withOffsetSameInstant(ZoneOffset.UTC).toString());
+                    json.writeFieldName("payload");
+                    json.writeRawValue(event.payload());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            }
+
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append outbox events to " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.model.IdempotencyKey;
+import com.annasozonova.bank.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps track of idempotency keys of applied transfers.
+ * <p>
+ * Recently used keys are answered from a bounded in-memory cache with TTL eviction;
+ * the {@code idempotency_keys} table is the durable source of truth and survives restarts.
+ * Keys are claimed inside the transfer transaction, so a key is stored if and only if
+ * its transfer committed.
+ * </p>
+ */
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyKeyRepository keyRepo;
+    private final Cache<IdempotencyKey.Id, String> recentKeys;
+    private final Duration retention;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyKeyRepository keyRepo,
+                            @Value("${bank.idempotency.cache-size}") long cacheSize,
+                            @Value("${bank.idempotency.cache-ttl}") Duration cacheTtl,
+                            @Value("${bank.idempotency.retention}") Duration retention) {
+        this.keyRepo = keyRepo;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.retention = retention;
+    }
+
+    /**
+     * Computes a stable fingerprint of a transfer request.
+     *
+     * @param request transfer details
+     * @return hex-encoded SHA-256 of the request fields
+     */
+    public static String fingerprint(TransferRequest request) {
+        String canonical = request.getFromCardId() + "|" + request.getToCardId() + "|"
+                + request.getAmount().stripTrailingZeros().toPlainString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the request fingerprint stored for a key, checking the cache before the database.
+     *
+     * @param userId ID of the user
+     * @param key    idempotency key
+     * @return fingerprint of the request that used the key, if the key was used
+     */
+    public Optional<String> find(UUID userId, String key) {
+        IdempotencyKey.Id id = new IdempotencyKey.Id(userId, key);
+        String cached = recentKeys.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<String> stored = keyRepo.findById(id).map(IdempotencyKey::getRequestHash);
+        stored.ifPresent(hash -> recentKeys.put(id, hash));
+        return stored;
+    }
+
+    /**
+     * Claims a key in the current transaction.
+     *
+     * @param userId      ID of the user
+     * @param key         idempotency key
+     * @param requestHash request fingerprint
+     * @return {@code true} if the key was free, {@code false} if another request already holds it
+     */
+    public boolean claim(UUID userId, String key, String requestHash) {
+        return keyRepo.insertIfAbsent(userId, key, requestHash, OffsetDateTime.now()) == 1;
+    }
+
+    /**
+     * Caches a key after its transfer has committed.
+     *
+     * @param userId      ID of the user
+     * @param key         idempotency key
+     * @param requestHash request fingerprint
+     */
+    public void remember(UUID userId, String key, String requestHash) {
+        recentKeys.put(new IdempotencyKey.Id(userId, key), requestHash);
+    }
+
+    /**
+     * Removes keys older than the configured retention period.
+     */
+    @Scheduled(fixedDelayString = "${bank.idempotency.cleanup-interval}")
+    @Transactional
+    public void purgeExpired() {
+        keyRepo.deleteCreatedBefore(OffsetDateTime.now().minus(retention));
+    }
+}
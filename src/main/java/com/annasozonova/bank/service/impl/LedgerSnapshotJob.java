@@ -0,0 +1,90 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.JobCheckpointRepository;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.util.UuidOrdering;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps per-card balance snapshots close to the head of the {@code postings} ledger.
+ * <p>
+ * Each run continues from the posting ID saved in {@code job_checkpoints}, collects the
+ * cards with newer postings in ID ranges of {@code scan-size} and folds their new postings
+ * into {@code card_balance_snapshots}. Cards are refreshed in chunks, each in a short
+ * transaction holding the cards' row locks, so that no transfer on those cards is in
+ * flight while their snapshot is taken. A balance read then only sums the few postings
+ * made since the last run.
+ * </p>
+ */
+@Component
+public class LedgerSnapshotJob {
+
+    private static final String CHECKPOINT = "ledger-snapshots";
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotJob.class);
+
+    private final LedgerRepository ledgerRepo;
+    private final CardRepository cardRepo;
+    private final JobCheckpointRepository checkpoints;
+    private final TransactionTemplate txTemplate;
+    private final int scanSize;
+    private final int lockChunkSize;
+
+    @Autowired
+    public LedgerSnapshotJob(LedgerRepository ledgerRepo,
+                             CardRepository cardRepo,
+                             JobCheckpointRepository checkpoints,
+                             PlatformTransactionManager txManager,
+                             @Value("${bank.ledger.snapshot.scan-size}") int scanSize,
+                             @Value("${bank.ledger.snapshot.lock-chunk-size}") int lockChunkSize) {
+        this.ledgerRepo = ledgerRepo;
+        this.cardRepo = cardRepo;
+        this.checkpoints = checkpoints;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.scanSize = Math.max(1, scanSize);
+        this.lockChunkSize = Math.max(1, lockChunkSize);
+    }
+
+    /**
+     * Refreshes snapshots of all cards with postings after the saved checkpoint.
+     * Stops early on a lock timeout; the next run resumes from the last saved range.
+     */
+    @Scheduled(fixedDelayString = "${bank.ledger.snapshot.interval}")
+    public void run() {
+        long position = checkpoints.find(CHECKPOINT);
+        long head = ledgerRepo.maxPostingId();
+        try {
+            while (position < head) {
+                long upTo = Math.min(position + scanSize, head);
+                refresh(ledgerRepo.findCardsWithPostings(position, upTo));
+                checkpoints.save(CHECKPOINT, upTo);
+                position = upTo;
+            }
+        } catch (ConcurrencyFailureException ex) {
+            log.info("Balance snapshots stopped at posting {}: {}", position, ex.getMessage());
+        }
+    }
+
+    private void refresh(List<UUID> cardIds) {
+        List<UUID> ordered = cardIds.stream().sorted(UuidOrdering.POSTGRES_ORDER).toList();
+        for (int from = 0; from < ordered.size(); from += lockChunkSize) {
+            List<UUID> chunk = ordered.subList(from, Math.min(from + lockChunkSize, ordered.size()));
+            txTemplate.executeWithoutResult(status -> {
+                cardRepo.findAllByIdForUpdate(chunk);
+                ledgerRepo.refreshSnapshots(chunk);
+            });
+        }
+    }
+}
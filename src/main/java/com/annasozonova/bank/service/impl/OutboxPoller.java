@@ -0,0 +1,119 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.OutboxRepository.OutboxEvent;
+import com.annasozonova.bank.service.OutboxSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Delivers outbox events to all {@link OutboxSink} beans.
+ * <p>
+ * Each step claims a batch of events with {@code FOR UPDATE SKIP LOCKED}, hands it to
+ * every sink and deletes it, all in one transaction, so the events stay locked while
+ * they are delivered and other pollers move on to the next batch. If a sink fails,
+ * the batch is kept and postponed with exponential backoff instead. Delivery is
+ * at-least-once; the request path only pays for the insert of its events.
+ * </p>
+ */
+@Component
+public class OutboxPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPoller.class);
+
+    private final OutboxRepository outboxRepo;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Counter delivered;
+    private final Counter failures;
+
+    @Autowired
+    public OutboxPoller(OutboxRepository outboxRepo,
+                        List<OutboxSink> sinks,
+                        PlatformTransactionManager txManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${bank.outbox.batch-size}") int batchSize,
+                        @Value("${bank.outbox.retry-backoff}") Duration retryBackoff,
+                        @Value("${bank.outbox.max-backoff}") Duration maxBackoff) {
+        this.outboxRepo = outboxRepo;
+        this.sinks = List.copyOf(sinks);
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.delivered = Counter.builder("bank.outbox.delivered")
+                .description("Outbox events delivered to all sinks")
+                .register(meterRegistry);
+        this.failures = Counter.builder("bank.outbox.failures")
+                .description("Outbox batches postponed after a failed delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delivers batches until the outbox holds no deliverable events or a delivery fails.
+     * Without any sink there is nothing to do: {@link OutboxRepository} does not
+     * record events then.
+     */
+    @Scheduled(fixedDelayString = "${bank.outbox.poll-interval}")
+    public void run() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        Integer count;
+        do {
+            count = txTemplate.execute(status -> deliverBatch());
+        } while (count != null && count == batchSize);
+    }
+
+    /**
+     * Claims and delivers one batch in the current transaction.
+     *
+     * @return number of delivered events; 0 if there were none or delivery failed
+     */
+    private int deliverBatch() {
+        List<OutboxEvent> events = outboxRepo.claim(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = events.stream().map(OutboxEvent::id).toList();
+        try {
+            for (OutboxSink sink : sinks) {
+                sink.deliver(events);
+            }
+        } catch (RuntimeException ex) {
+            int attempts = events.stream().mapToInt(OutboxEvent::attempts).max().orElse(0);
+            Duration delay = backoff(attempts);
+            log.warn("Outbox delivery of events {}..{} failed, retrying in {}: {}",
+                    ids.get(0), ids.get(ids.size() - 1), delay, ex.getMessage());
+            outboxRepo.reschedule(ids, delay);
+            failures.increment();
+            return 0;
+        }
+        outboxRepo.delete(ids);
+        delivered.increment(events.size());
+        return events.size();
+    }
+
+    /**
+     * Delay before the next attempt: {@code retry-backoff} doubled per failed attempt,
+     * at most {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,97 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.TransactionArchiveRepository;
+import com.annasozonova.bank.repository.TransactionExportRepository;
+import com.annasozonova.bank.repository.TransactionPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Moves months of {@code transactions} older than the hot window into archive files.
+ * <p>
+ * A month is read from its partition table in one streaming pass, written to its archive
+ * file and, once the file is complete and synced, the partition is dropped. If anything
+ * fails before that, the partition stays and the month is retried on the next run.
+ * History reads switch to the archive as soon as its file exists.
+ * </p>
+ */
+@Component
+public class TransactionArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveJob.class);
+
+    private final TransactionPartitionRepository partitionRepo;
+    private final TransactionExportRepository exportRepo;
+    private final TransactionArchiveRepository archiveRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final int hotMonths;
+
+    @Autowired
+    public TransactionArchiveJob(TransactionPartitionRepository partitionRepo,
+                                 TransactionExportRepository exportRepo,
+                                 TransactionArchiveRepository archiveRepo,
+                                 PlatformTransactionManager txManager,
+                                 @Value("${bank.archive.hot-months}") int hotMonths) {
+        this.partitionRepo = partitionRepo;
+        this.exportRepo = exportRepo;
+        this.archiveRepo = archiveRepo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.hotMonths = Math.max(1, hotMonths);
+    }
+
+    /**
+     * Archives every month older than {@code hot-months}.
+     */
+    @Scheduled(cron = "${bank.archive.cron}")
+    public void run() {
+        archiveBefore(YearMonth.now(ZoneOffset.UTC).minusMonths(hotMonths));
+    }
+
+    /**
+     * Archives the partitions of all months before the given one, oldest first.
+     * Stops at the first failure.
+     *
+     * @param oldestHot first month that stays in the database
+     */
+    void archiveBefore(YearMonth oldestHot) {
+        for (YearMonth month : partitionRepo.findMonths()) {
+            if (!month.isBefore(oldestHot)) {
+                break;
+            }
+            try {
+                long entries = archive(month);
+                partitionRepo.dropPartition(month);
+                log.info("Archived transactions of {} ({} entries)", month, entries);
+            } catch (IOException | UncheckedIOException | DataAccessException ex) {
+                log.warn("Could not archive transactions of {}: {}", month, ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    private long archive(YearMonth month) throws IOException {
+        try (TransactionArchiveRepository.ArchiveWriter writer = archiveRepo.openWriter(month)) {
+            readOnlyTx.executeWithoutResult(status -> exportRepo.streamArchiveEntries(month, entry -> {
+                try {
+                    writer.append(entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            return writer.commit();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.TransactionArchiveRepository;
+import com.annasozonova.bank.repository.TransactionExportRepository;
+import com.annasozonova.bank.repository.UserRepository;
+import com.annasozonova.bank.service.TransactionExport;
+import com.annasozonova.bank.service.TransactionExportService;
+import com.annasozonova.bank.util.TransactionExportWriter;
+import com.annasozonova.bank.util.UuidOrdering;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link TransactionExportService} implementation streaming rows from the database to the client.
+ * <p>
+ * Existence of the card or user is checked up front, so a missing resource is reported as
+ * 404 before the response starts. The returned export first writes the months that have
+ * been moved to {@link TransactionArchiveRepository}, oldest first, one card-month at a
+ * time. It then reads the months after the newest archived one in a read-only
+ * transaction, which keeps the JDBC cursor open, and writes each row as soon as it is
+ * fetched. A month whose partition outlived its archive is written once, from the archive.
+ * </p>
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    /**
+     * Oldest first, matching {@code ORDER BY transfer_date, id}.
+     */
+    private static final Comparator<TransactionDto> OLDEST_FIRST =
+            Comparator.comparing((TransactionDto t) -> t.getTransferDate().toInstant())
+                    .thenComparing(TransactionDto::getId, UuidOrdering.POSTGRES_ORDER);
+
+    /**
+     * Lower bound of the live query when nothing has been archived.
+     */
+    private static final OffsetDateTime NO_ARCHIVE = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final TransactionExportRepository exportRepo;
+    private final TransactionArchiveRepository archiveRepo;
+    private final CardRepository cardRepo;
+    private final UserRepository userRepo;
+    private final TransactionTemplate readOnlyTx;
+
+    @Autowired
+    public TransactionExportServiceImpl(TransactionExportRepository exportRepo,
+                                        TransactionArchiveRepository archiveRepo,
+                                        CardRepository cardRepo,
+                                        UserRepository userRepo,
+                                        PlatformTransactionManager txManager) {
+        this.exportRepo = exportRepo;
+        this.archiveRepo = archiveRepo;
+        this.cardRepo = cardRepo;
+        this.userRepo = userRepo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Override
+    public TransactionExport exportCardTransactions(UUID cardId, TransactionExportFormat format) {
+        if (!cardRepo.existsById(cardId)) {
+            throw new ResourceNotFoundException("Card not found with id " + cardId);
+        }
+        return export(format,
+                month -> archiveRepo.findCardTransactions(month, cardId, null, Integer.MAX_VALUE),
+                (from, handler) -> exportRepo.streamCardTransactions(cardId, from, handler));
+    }
+
+    @Override
+    public TransactionExport exportUserTransactions(UUID userId, TransactionExportFormat format) {
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+        Set<UUID> cardIds = exportRepo.findCardIds(userId);
+        return export(format,
+                month -> archivedUserTransactions(month, cardIds),
+                (from, handler) -> exportRepo.streamUserTransactions(userId, from, handler));
+    }
+
+    /**
+     * Collects a user's transactions of one archived month. Transfers between two cards of
+     * the user are kept once, from the sending card.
+     */
+    private List<TransactionDto> archivedUserTransactions(YearMonth month, Set<UUID> cardIds) {
+        List<TransactionDto> result = new ArrayList<>();
+        for (UUID cardId : cardIds) {
+            for (TransactionDto tx : archiveRepo.findCardTransactions(month, cardId, null, Integer.MAX_VALUE)) {
+                if (tx.getFromCardId().equals(cardId) || !cardIds.contains(tx.getFromCardId())) {
+                    result.add(tx);
+                }
+            }
+        }
+        return result;
+    }
+
+    private TransactionExport export(TransactionExportFormat format,
+                                     Function<YearMonth, List<TransactionDto>> archived,
+                                     BiConsumer<OffsetDateTime, RowCallbackHandler> live) {
+        return out -> {
+            try (TransactionExportWriter writer = TransactionExportWriter.create(format, out)) {
+                NavigableSet<YearMonth> months = archiveRepo.archivedMonths();
+                for (YearMonth month : months) {
+                    List<TransactionDto> rows = new ArrayList<>(archived.apply(month));
+                    rows.sort(OLDEST_FIRST);
+                    for (TransactionDto row : rows) {
+                        writer.write(row);
+                    }
+                }
+                OffsetDateTime liveFrom = months.isEmpty() ? NO_ARCHIVE
+                        : months.last().plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+                readOnlyTx.executeWithoutResult(status -> live.accept(liveFrom, rs -> {
+                    try {
+                        writer.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.TransactionPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Maintains the monthly partitions of the {@code transactions} table.
+ * <p>
+ * Partitions are created {@code months-ahead} months in advance, so new transfers never
+ * fall into the default partition. Old partitions are not removed here:
+ * {@link TransactionArchiveJob} drops each one only after its archive file is complete, so
+ * every month stays readable from either the table or the archive.
+ * </p>
+ */
+@Component
+public class TransactionPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionManager.class);
+
+    private final TransactionPartitionRepository partitionRepo;
+    private final int monthsAhead;
+
+    @Autowired
+    public TransactionPartitionManager(TransactionPartitionRepository partitionRepo,
+                                       @Value("${bank.transactions.partitions.months-ahead}") int monthsAhead) {
+        this.partitionRepo = partitionRepo;
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    /**
+     * Brings partitions up to date on startup and then once a day.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bank.transactions.partitions.cron}")
+    public void run() {
+        maintain(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Creates missing partitions from the current month up to {@code months-ahead}.
+     * A failure on one partition is logged and does not stop the others.
+     *
+     * @param current current month (UTC)
+     */
+    void maintain(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                partitionRepo.createPartition(month);
+            } catch (DataAccessException ex) {
+                log.warn("Could not create transactions partition for {}: {}", month, ex.getMessage());
+            }
+        }
+    }
+}
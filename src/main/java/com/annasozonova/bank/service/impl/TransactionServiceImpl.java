@@ -0,0 +1,297 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardStatsDto;
+import com.annasozonova.bank.dto.StatsPeriod;
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionHistoryDto;
+import com.annasozonova.bank.exception.BusinessException;
+import com.annasozonova.bank.exception.ForbiddenOperationException;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+import com.annasozonova.bank.model.Card;
+import com.annasozonova.bank.model.Transaction;
+import com.annasozonova.bank.repository.CardDailyStatsRepository;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.TransactionArchiveRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
+import com.annasozonova.bank.service.TransactionService;
+import com.annasozonova.bank.util.CursorCodec;
+import com.annasozonova.bank.util.TransactionMapper;
+import com.annasozonova.bank.util.UuidOrdering;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+
+/**
+ * {@link TransactionService} implementation serving card history with keyset pagination.
+ * <p>
+ * Outgoing and incoming transactions are read by two index range scans, each limited to
+ * one row more than the page size, and merged in memory. The cost of a page therefore
+ * does not depend on how deep the client has paged or how many rows the card has.
+ * </p>
+ * <p>
+ * Months that have been moved out of the database are read from their archive file, so
+ * deep pages keep working after archiving. Every run of consecutive months still in the
+ * database is read by a single seek bounded below by the oldest month of the run, which
+ * partition pruning limits to those partitions. A page therefore costs one seek per run
+ * plus one file per archived month it reaches, not a query per month of the card's
+ * history. The walk stops once the page is full or the month of the card's creation
+ * has been read.
+ * </p>
+ * <p>
+ * Spend summaries are read from the per-day aggregates in {@code card_daily_stats}, so
+ * their cost depends on the length of the requested range, not on the card's history.
+ * </p>
+ */
+@Service
+public class TransactionServiceImpl implements TransactionService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_STATS_DAYS = 366;
+
+    private static final int MAX_STATS_MONTHS = 120;
+
+    /**
+     * Newest first, matching {@code ORDER BY transfer_date DESC, id DESC}.
+     */
+    private static final Comparator<TransactionDto> NEWEST_FIRST =
+            Comparator.comparing((TransactionDto t) -> t.getTransferDate().toInstant())
+                    .thenComparing(TransactionDto::getId, UuidOrdering.POSTGRES_ORDER)
+                    .reversed();
+
+    private final TransactionRepository txRepo;
+    private final CardRepository cardRepo;
+    private final CardDailyStatsRepository statsRepo;
+    private final TransactionArchiveRepository archiveRepo;
+
+    @Autowired
+    public TransactionServiceImpl(TransactionRepository txRepo,
+                                  CardRepository cardRepo,
+                                  CardDailyStatsRepository statsRepo,
+                                  TransactionArchiveRepository archiveRepo) {
+        this.txRepo = txRepo;
+        this.cardRepo = cardRepo;
+        this.statsRepo = statsRepo;
+        this.archiveRepo = archiveRepo;
+    }
+
+    /**
+     * Returns one page of a card's transaction history.
+     *
+     * @param cardId ID of the card
+     * @param cursor cursor from the previous page, or {@code null} for the first page
+     * @param size   maximum number of transactions on the page
+     * @return page of transactions
+     * @throws ResourceNotFoundException if card does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryDto getCardHistory(UUID cardId, String cursor, int size) {
+        Card card = cardRepo.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
+        return readHistory(card, cursor, size);
+    }
+
+    /**
+     * Returns one page of the history of a user's own card.
+     *
+     * @param userId ID of the requesting user
+     * @param cardId ID of the card
+     * @param cursor cursor from the previous page, or {@code null} for the first page
+     * @param size   maximum number of transactions on the page
+     * @return page of transactions
+     * @throws ResourceNotFoundException   if card does not exist
+     * @throws ForbiddenOperationException if card does not belong to user
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryDto getUserCardHistory(UUID userId, UUID cardId, String cursor, int size) {
+        Card card = cardRepo.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
+        if (!card.getOwner().getId().equals(userId)) {
+            throw new ForbiddenOperationException("You are not allowed to view this card history");
+        }
+        return readHistory(card, cursor, size);
+    }
+
+    /**
+     * Returns a single transaction.
+     *
+     * @param transactionId ID of the transaction
+     * @return transaction data
+     * @throws ResourceNotFoundException if transaction does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionDto getTransaction(UUID transactionId) {
+        return txRepo.findById(transactionId)
+                .map(TransactionMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id " + transactionId));
+    }
+
+    /**
+     * Returns a single transaction sent from a user's own card.
+     *
+     * @param userId        ID of the requesting user
+     * @param transactionId ID of the transaction
+     * @return transaction data
+     * @throws ResourceNotFoundException   if transaction does not exist
+     * @throws ForbiddenOperationException if source card does not belong to user
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionDto getUserTransaction(UUID userId, UUID transactionId) {
+        TransactionDto transaction = getTransaction(transactionId);
+        if (!txRepo.existsByIdAndFromCard_Owner_Id(transactionId, userId)) {
+            throw new ForbiddenOperationException("You are not allowed to view this transaction");
+        }
+        return transaction;
+    }
+
+    /**
+     * Returns transfer totals of a card per day or month.
+     *
+     * @param cardId ID of the card
+     * @param period length of the periods
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return totals of every period with transfers
+     * @throws ResourceNotFoundException if card does not exist
+     * @throws BusinessException         if the date range is invalid or too long
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardStatsDto> getCardStats(UUID cardId, StatsPeriod period, LocalDate from, LocalDate to) {
+        if (!cardRepo.existsById(cardId)) {
+            throw new ResourceNotFoundException("Card not found with id " + cardId);
+        }
+        return readStats(cardId, period, from, to);
+    }
+
+    /**
+     * Returns transfer totals per day or month of a user's own card.
+     *
+     * @param userId ID of the requesting user
+     * @param cardId ID of the card
+     * @param period length of the periods
+     * @param from   first day, inclusive
+     * @param to     last day, inclusive
+     * @return totals of every period with transfers
+     * @throws ResourceNotFoundException   if card does not exist
+     * @throws ForbiddenOperationException if card does not belong to user
+     * @throws BusinessException           if the date range is invalid or too long
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardStatsDto> getUserCardStats(UUID userId, UUID cardId, StatsPeriod period,
+                                               LocalDate from, LocalDate to) {
+        Card card = cardRepo.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with id " + cardId));
+        if (!card.getOwner().getId().equals(userId)) {
+            throw new ForbiddenOperationException("You are not allowed to view this card statistics");
+        }
+        return readStats(cardId, period, from, to);
+    }
+
+    private List<CardStatsDto> readStats(UUID cardId, StatsPeriod period, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("Start date must not be after end date");
+        }
+        return switch (period) {
+            case DAY -> {
+                if (ChronoUnit.DAYS.between(from, to) >= MAX_STATS_DAYS) {
+                    throw new BusinessException("Daily statistics are limited to " + MAX_STATS_DAYS + " days");
+                }
+                yield statsRepo.findDaily(cardId, from, to);
+            }
+            case MONTH -> {
+                LocalDate firstDay = from.withDayOfMonth(1);
+                if (ChronoUnit.MONTHS.between(firstDay, to) >= MAX_STATS_MONTHS) {
+                    throw new BusinessException("Monthly statistics are limited to " + MAX_STATS_MONTHS + " months");
+                }
+                yield statsRepo.findMonthly(cardId, firstDay, to);
+            }
+        };
+    }
+
+    private TransactionHistoryDto readHistory(Card card, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        UUID cardId = card.getId();
+        CursorCodec.Position position = cursor == null || cursor.isBlank() ? null : CursorCodec.decode(cursor);
+
+        YearMonth month = YearMonth.from(startOfMonth(position == null ? OffsetDateTime.now() : position.timestamp()));
+        YearMonth firstMonth = card.getCreatedAt() == null ? month : YearMonth.from(startOfMonth(card.getCreatedAt()));
+        NavigableSet<YearMonth> archived = archiveRepo.archivedMonths();
+        List<TransactionDto> merged = new ArrayList<>(2 * (pageSize + 1));
+        CursorCodec.Position before = position;
+        while (merged.size() <= pageSize && !month.isBefore(firstMonth)) {
+            int remaining = pageSize + 1 - merged.size();
+            if (archived.contains(month)) {
+                merged.addAll(archiveRepo.findCardTransactions(month, cardId, before, remaining));
+                month = month.minusMonths(1);
+            } else {
+                YearMonth newerArchived = archived.lower(month);
+                YearMonth oldest = newerArchived == null || newerArchived.isBefore(firstMonth)
+                        ? firstMonth
+                        : newerArchived.plusMonths(1);
+                merged.addAll(readLive(cardId, atStart(oldest), atStart(month.plusMonths(1)), before, remaining));
+                month = oldest.minusMonths(1);
+            }
+            before = null;
+        }
+
+        boolean hasNext = merged.size() > pageSize;
+        List<TransactionDto> page = hasNext ? merged.subList(0, pageSize) : merged;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionDto last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getTransferDate(), last.getId());
+        }
+
+        return new TransactionHistoryDto(
+                List.copyOf(page),
+                nextCursor,
+                hasNext
+        );
+    }
+
+    /**
+     * Reads one run of consecutive months that are still in the database with one range
+     * scan per direction, newest first.
+     */
+    private List<TransactionDto> readLive(UUID cardId, OffsetDateTime from, OffsetDateTime to,
+                                          CursorCodec.Position before, int limit) {
+        Limit rows = Limit.of(limit);
+        List<Transaction> live = new ArrayList<>();
+        if (before != null) {
+            live.addAll(txRepo.findOutgoingBefore(cardId, from, before.timestamp(), before.id(), rows));
+            live.addAll(txRepo.findIncomingBefore(cardId, from, before.timestamp(), before.id(), rows));
+        } else {
+            live.addAll(txRepo.findOutgoing(cardId, from, to, rows));
+            live.addAll(txRepo.findIncoming(cardId, from, to, rows));
+        }
+        return live.stream().map(TransactionMapper::toDto).sorted(NEWEST_FIRST).limit(limit).toList();
+    }
+
+    private static OffsetDateTime atStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    private static OffsetDateTime startOfMonth(OffsetDateTime timestamp) {
+        return timestamp.withOffsetSameInstant(ZoneOffset.UTC)
+                .truncatedTo(ChronoUnit.DAYS)
+                .withDayOfMonth(1);
+    }
+}
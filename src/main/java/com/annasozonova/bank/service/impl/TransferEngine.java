@@ -0,0 +1,437 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.dto.TransferResultDto;
+import com.annasozonova.bank.exception.BusinessException;
+import com.annasozonova.bank.exception.ForbiddenOperationException;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+import com.annasozonova.bank.model.Card;
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.model.Transaction;
+import com.annasozonova.bank.model.TransactionStatus;
+import com.annasozonova.bank.repository.CardDailyStatsRepository;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
+import com.annasozonova.bank.util.UuidOrdering;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Applies a single funds transfer inside one database transaction.
+ * <p>
+ * Both card rows are locked with {@code SELECT ... FOR UPDATE} in
+ * {@link UuidOrdering#POSTGRES_ORDER}, so two transfers touching the same pair
+ * of cards always queue in the same order and cannot deadlock. Balances are
+ * checked and changed only while the locks are held, and every applied transfer
+ * appends a {@link Transaction} row plus its debit and credit postings
+ * ({@link LedgerRepository}) and a {@code TRANSFER_COMPLETED} outbox event
+ * ({@link OutboxRepository}) in the same transaction.
+ * </p>
+ * <p>
+ * {@link #transferConditional(TransferRequest)} is the lock-free alternative that
+ * pushes the checks into two conditional {@code UPDATE} statements.
+ * </p>
+ */
+@Component
+public class TransferEngine {
+
+    /**
+     * Maximum number of IDs in one {@code IN} list when locking a batch.
+     */
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private final CardRepository cardRepo;
+    private final TransactionRepository txRepo;
+    private final LedgerRepository ledgerRepo;
+    private final CardDailyStatsRepository statsRepo;
+    private final OutboxRepository outboxRepo;
+    private final CardContentionMonitor contentionMonitor;
+    private final Timer lockWaitTimer;
+
+    @Autowired
+    public TransferEngine(CardRepository cardRepo,
+                          TransactionRepository txRepo,
+                          LedgerRepository ledgerRepo,
+                          CardDailyStatsRepository statsRepo,
+                          OutboxRepository outboxRepo,
+                          CardContentionMonitor contentionMonitor,
+                          MeterRegistry meterRegistry) {
+        this.cardRepo = cardRepo;
+        this.txRepo = txRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.statsRepo = statsRepo;
+        this.outboxRepo = outboxRepo;
+        this.contentionMonitor = contentionMonitor;
+        this.lockWaitTimer = Timer.builder("bank.transfer.lock.wait")
+                .description("Time spent acquiring row locks on both transfer cards")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Locks both cards in deterministic order, validates the transfer and moves the funds.
+     *
+     * @param request transfer details
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if transfer is not allowed
+     */
+    @Transactional
+    public void transfer(TransferRequest request) {
+        transfer(request, null);
+    }
+
+    /**
+     * Same as {@link #transfer(TransferRequest)}, completing an already recorded
+     * {@code PENDING} ledger row instead of appending a new one.
+     *
+     * @param request              transfer details
+     * @param pendingTransactionId ID of the pending ledger row, or {@code null} to append one
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if transfer is not allowed
+     */
+    @Transactional
+    public void transfer(TransferRequest request, UUID pendingTransactionId) {
+        UUID fromCardId = request.getFromCardId();
+        UUID toCardId = request.getToCardId();
+        Money amount = Money.of(request.getAmount());
+
+        if (fromCardId.equals(toCardId)) {
+            throw new BusinessException("Source and target cards must be different");
+        }
+
+        Card fromCard;
+        Card toCard;
+        long lockStart = System.nanoTime();
+        if (UuidOrdering.compare(fromCardId, toCardId) < 0) {
+            fromCard = lockSource(fromCardId);
+            toCard = lockTarget(toCardId);
+        } else {
+            toCard = lockTarget(toCardId);
+            fromCard = lockSource(fromCardId);
+        }
+        lockWaitTimer.record(System.nanoTime() - lockStart, TimeUnit.NANOSECONDS);
+
+        validate(fromCard, toCard, amount);
+
+        fromCard.setBalance(fromCard.getBalance().minus(amount));
+        toCard.setBalance(toCard.getBalance().plus(amount));
+
+        recordCompleted(fromCard, toCard, amount, pendingTransactionId);
+    }
+
+    /**
+     * Applies the transfer as a conditional debit and a conditional credit statement.
+     * <p>
+     * Each statement re-checks status, ownership and (for the debit) funds in its
+     * {@code WHERE} clause, so no card entity or owner proxy is loaded on the happy path.
+     * The statements run in {@link UuidOrdering#POSTGRES_ORDER} of the card IDs to keep
+     * the lock order identical to {@link #transfer(TransferRequest)}. If either statement
+     * touches no row, the transaction is rolled back. The reason is derived from which
+     * statement failed, looking only at that statement's card, which this transaction
+     * has not changed.
+     * </p>
+     *
+     * @param request transfer details
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if transfer is not allowed
+     */
+    @Transactional
+    public void transferConditional(TransferRequest request) {
+        transferConditional(request, null);
+    }
+
+    /**
+     * Same as {@link #transferConditional(TransferRequest)}, completing an already
+     * recorded {@code PENDING} ledger row instead of appending a new one.
+     *
+     * @param request              transfer details
+     * @param pendingTransactionId ID of the pending ledger row, or {@code null} to append one
+     * @throws ResourceNotFoundException if either card does not exist
+     * @throws BusinessException         if transfer is not allowed
+     */
+    @Transactional
+    public void transferConditional(TransferRequest request, UUID pendingTransactionId) {
+        UUID fromCardId = request.getFromCardId();
+        UUID toCardId = request.getToCardId();
+        Money amount = Money.of(request.getAmount());
+
+        if (fromCardId.equals(toCardId)) {
+            throw new BusinessException("Source and target cards must be different");
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Supplier<Boolean> debit = () ->
+                watched(fromCardId, () -> cardRepo.debitIfAllowed(fromCardId, toCardId, amount, now)) == 1;
+        Supplier<Boolean> credit = () ->
+                watched(toCardId, () -> cardRepo.creditIfAllowed(toCardId, fromCardId, amount, now)) == 1;
+        boolean sourceFirst = UuidOrdering.compare(fromCardId, toCardId) < 0;
+        Supplier<Boolean> first = sourceFirst ? debit : credit;
+        Supplier<Boolean> second = sourceFirst ? credit : debit;
+
+        if (!first.get()) {
+            throw rejection(sourceFirst, fromCardId, toCardId, amount);
+        }
+        if (!second.get()) {
+            throw rejection(!sourceFirst, fromCardId, toCardId, amount);
+        }
+
+        recordCompleted(cardRepo.getReferenceById(fromCardId), cardRepo.getReferenceById(toCardId),
+                amount, pendingTransactionId);
+    }
+
+    /**
+     * Applies a batch of transfers between cards of one user in a single transaction.
+     * <p>
+     * All referenced cards are locked up front, in ID order and once per batch. Each
+     * transfer is then validated against the running in-memory balances and either
+     * applied or rejected on its own; a rejected item does not affect the others.
+     * Balance updates and ledger inserts are flushed together at commit, where
+     * Hibernate groups them into JDBC batches.
+     * </p>
+     *
+     * @param ownerId  ID of the user that must own every card
+     * @param requests transfers in the order they should be applied
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public List<TransferResultDto> transferBatch(UUID ownerId, List<TransferRequest> requests) {
+        List<BatchOutcome> outcomes = applyAll(ownerId, requests);
+
+        List<TransferResultDto> results = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            BatchOutcome outcome = outcomes.get(i);
+            results.add(outcome.rejection() == null
+                    ? new TransferResultDto(i, "COMPLETED", outcome.transactionId(), null)
+                    : new TransferResultDto(i, "REJECTED", null, outcome.rejection().getMessage()));
+        }
+        return results;
+    }
+
+    /**
+     * Applies transfers submitted independently by different callers in a single transaction.
+     * <p>
+     * Works like {@link #transferBatch(UUID, List)} except that the cards of each
+     * transfer only have to share an owner with each other, as in {@link #transfer(TransferRequest)}.
+     * </p>
+     *
+     * @param requests transfers in the order they should be applied
+     * @return per request, {@code null} if it was applied or the exception that rejected it
+     */
+    @Transactional
+    public List<RuntimeException> transferGroup(List<TransferRequest> requests) {
+        return applyAll(null, requests).stream()
+                .map(BatchOutcome::rejection)
+                .toList();
+    }
+
+    /**
+     * Result of one item of a batch: the ledger row ID if applied, the rejection otherwise.
+     */
+    private record BatchOutcome(UUID transactionId, RuntimeException rejection) {
+    }
+
+    private List<BatchOutcome> applyAll(UUID ownerId, List<TransferRequest> requests) {
+        Map<UUID, Card> cards = lockAll(requests);
+
+        RuntimeException[] rejections = new RuntimeException[requests.size()];
+        Transaction[] ledger = new Transaction[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                ledger[i] = applyBatchItem(ownerId, requests.get(i), cards);
+            } catch (BusinessException | ResourceNotFoundException | ForbiddenOperationException ex) {
+                rejections[i] = ex;
+            }
+        }
+
+        List<BatchOutcome> outcomes = new ArrayList<>(requests.size());
+        List<LedgerRepository.TransferPosting> postings = new ArrayList<>(requests.size());
+        for (int i = 0; i < ledger.length; i++) {
+            if (ledger[i] != null) {
+                Transaction saved = txRepo.save(ledger[i]);
+                postings.add(new LedgerRepository.TransferPosting(saved.getId(),
+                        saved.getFromCard().getId(), saved.getToCard().getId(), saved.getAmount()));
+                outcomes.add(new BatchOutcome(saved.getId(), null));
+            } else {
+                outcomes.add(new BatchOutcome(null, rejections[i]));
+            }
+        }
+        post(postings);
+        return outcomes;
+    }
+
+    private Map<UUID, Card> lockAll(List<TransferRequest> requests) {
+        List<UUID> ids = requests.stream()
+                .flatMap(r -> Stream.of(r.getFromCardId(), r.getToCardId()))
+                .distinct()
+                .sorted(UuidOrdering.POSTGRES_ORDER)
+                .toList();
+
+        Map<UUID, Card> cards = new HashMap<>(ids.size() * 2);
+        long lockStart = System.nanoTime();
+        for (int from = 0; from < ids.size(); from += LOCK_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ids.size()));
+            cardRepo.findAllByIdForUpdate(chunk).forEach(card -> cards.put(card.getId(), card));
+        }
+        lockWaitTimer.record(System.nanoTime() - lockStart, TimeUnit.NANOSECONDS);
+        return cards;
+    }
+
+    private Transaction applyBatchItem(UUID ownerId, TransferRequest request, Map<UUID, Card> cards) {
+        if (request.getFromCardId().equals(request.getToCardId())) {
+            throw new BusinessException("Source and target cards must be different");
+        }
+        Card fromCard = cards.get(request.getFromCardId());
+        if (fromCard == null) {
+            throw new ResourceNotFoundException("Source card not found");
+        }
+        Card toCard = cards.get(request.getToCardId());
+        if (toCard == null) {
+            throw new ResourceNotFoundException("Target card not found");
+        }
+        if (ownerId != null
+                && (!fromCard.getOwner().getId().equals(ownerId) || !toCard.getOwner().getId().equals(ownerId))) {
+            throw new ForbiddenOperationException("You are not allowed to transfer from or to this card");
+        }
+
+        Money amount = Money.of(request.getAmount());
+        validate(fromCard, toCard, amount);
+
+        fromCard.setBalance(fromCard.getBalance().minus(amount));
+        toCard.setBalance(toCard.getBalance().plus(amount));
+        return Transaction.builder()
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .amount(amount)
+                .status(TransactionStatus.COMPLETED)
+                .build();
+    }
+
+    /**
+     * Appends the ledger row for an applied transfer, or completes the pending one,
+     * and its two postings in the current transaction. A pending row that is no longer
+     * {@code PENDING} was already processed elsewhere, so the transfer is rolled back.
+     */
+    private void recordCompleted(Card fromCard, Card toCard, Money amount, UUID pendingTransactionId) {
+        UUID transactionId = pendingTransactionId;
+        if (pendingTransactionId != null) {
+            if (txRepo.updateStatusIfPending(pendingTransactionId, TransactionStatus.COMPLETED, null) != 1) {
+                throw new IllegalStateException("Transfer " + pendingTransactionId + " is no longer pending");
+            }
+        } else {
+            transactionId = txRepo.save(Transaction.builder()
+                    .fromCard(fromCard)
+                    .toCard(toCard)
+                    .amount(amount)
+                    .status(TransactionStatus.COMPLETED)
+                    .build()).getId();
+        }
+        post(List.of(new LedgerRepository.TransferPosting(transactionId, fromCard.getId(), toCard.getId(), amount)));
+    }
+
+    /**
+     * Writes the postings, daily aggregates and outbox events of applied transfers. Pending entity changes
+     * are flushed first, so the referenced {@code transactions} rows exist; both cards of
+     * every transfer are still locked by the current transaction.
+     */
+    private void post(List<LedgerRepository.TransferPosting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        txRepo.flush();
+        ledgerRepo.insertTransferPostings(postings);
+        statsRepo.recordTransfers(postings);
+        outboxRepo.appendTransfers(postings);
+    }
+
+    /**
+     * Explains why a conditional statement touched no row. Only the card of the failed
+     * statement is inspected: the other statement may already have changed the other
+     * card's balance in this transaction. Of the other card only existence and owner are
+     * used, which no transfer changes.
+     *
+     * @param debitFailed whether the debit (rather than the credit) touched no row
+     * @return exception to throw
+     * @throws ResourceNotFoundException if either card does not exist
+     */
+    private BusinessException rejection(boolean debitFailed, UUID fromCardId, UUID toCardId, Money amount) {
+        Card failed = debitFailed ? findSource(fromCardId) : findTarget(toCardId);
+        if (failed.getStatus() != CardStatus.ACTIVE) {
+            return new BusinessException("Both cards must be active");
+        }
+        if (debitFailed && failed.getBalance().isLessThan(amount)) {
+            return new BusinessException("Insufficient funds on source card");
+        }
+        Card other = debitFailed ? findTarget(toCardId) : findSource(fromCardId);
+        if (!failed.getOwner().getId().equals(other.getOwner().getId())) {
+            return new BusinessException("Cards do not belong to the same user");
+        }
+        return new BusinessException("Transfer could not be applied");
+    }
+
+    private void validate(Card fromCard, Card toCard, Money amount) {
+        if (!fromCard.getOwner().getId().equals(toCard.getOwner().getId())) {
+            throw new BusinessException("Cards do not belong to the same user");
+        }
+
+        if (fromCard.getStatus() != CardStatus.ACTIVE || toCard.getStatus() != CardStatus.ACTIVE) {
+            throw new BusinessException("Both cards must be active");
+        }
+
+        if (fromCard.getBalance().isLessThan(amount)) {
+            throw new BusinessException("Insufficient funds on source card");
+        }
+    }
+
+    private Card findSource(UUID cardId) {
+        return cardRepo.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Source card not found"));
+    }
+
+    private Card findTarget(UUID cardId) {
+        return cardRepo.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Target card not found"));
+    }
+
+    private Card lockSource(UUID cardId) {
+        return watched(cardId, () -> cardRepo.findByIdForUpdate(cardId))
+                .orElseThrow(() -> new ResourceNotFoundException("Source card not found"));
+    }
+
+    private Card lockTarget(UUID cardId) {
+        return watched(cardId, () -> cardRepo.findByIdForUpdate(cardId))
+                .orElseThrow(() -> new ResourceNotFoundException("Target card not found"));
+    }
+
+    /**
+     * Runs a statement that may wait for the row lock of one card and reports the
+     * wait, or the failed attempt, to {@link CardContentionMonitor}.
+     */
+    private <T> T watched(UUID cardId, Supplier<T> statement) {
+        long start = System.nanoTime();
+        try {
+            T result = statement.get();
+            contentionMonitor.recordLockWait(cardId, System.nanoTime() - start);
+            return result;
+        } catch (ConcurrencyFailureException ex) {
+            contentionMonitor.recordConflict(cardId, System.nanoTime() - start);
+            throw ex;
+        }
+    }
+}
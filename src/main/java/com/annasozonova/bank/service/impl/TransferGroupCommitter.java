@@ -0,0 +1,173 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single transfers.
+ * <p>
+ * Transfers submitted within a short window are collected by one background thread
+ * and applied by {@link TransferEngine#transferGroup(List)} in a single database
+ * transaction, so a burst of transfers pays for one commit instead of one each.
+ * A window closes when it holds {@code max-batch-size} transfers or when its oldest
+ * transfer has waited {@code max-wait}. Every transfer is still validated on its own;
+ * its future completes only after the group has committed, or exceptionally with the
+ * reason it was rejected or with the error that rolled back the whole group.
+ * </p>
+ * <p>
+ * Groups are applied one at a time, so they never wait for each other's row locks.
+ * </p>
+ */
+@Component
+public class TransferGroupCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferGroupCommitter.class);
+
+    private final TransferEngine transferEngine;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingTransfer> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary groupSize;
+    private final Timer addedLatency;
+    private Thread flusher;
+
+    private record PendingTransfer(TransferRequest request, long enqueuedAt, CompletableFuture<Void> result) {
+    }
+
+    @Autowired
+    public TransferGroupCommitter(TransferEngine transferEngine,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${bank.transfer.group-commit.enabled}") boolean enabled,
+                                  @Value("${bank.transfer.group-commit.max-batch-size}") int maxBatchSize,
+                                  @Value("${bank.transfer.group-commit.max-wait}") Duration maxWait) {
+        this.transferEngine = transferEngine;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.groupSize = DistributionSummary.builder("bank.transfer.group.size")
+                .description("Transfers applied per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.addedLatency = Timer.builder("bank.transfer.group.wait")
+                .description("Time a transfer waited for its group to be applied")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether transfers should be routed through the group committer.
+     *
+     * @return {@code true} if group commit is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a transfer for the next group.
+     *
+     * @param request transfer details
+     * @return future completed once the transfer's group has committed
+     */
+    public CompletableFuture<Void> submit(TransferRequest request) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (flusher == null || !flusher.isAlive()) {
+            result.completeExceptionally(new IllegalStateException("Group commit is not running"));
+            return result;
+        }
+        queue.add(new PendingTransfer(request, System.nanoTime(), result));
+        return result;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            flusher = new Thread(this::run, "transfer-group-commit");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<PendingTransfer> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.result().completeExceptionally(
+                new IllegalStateException("Application is shutting down")));
+    }
+
+    private void run() {
+        List<PendingTransfer> group = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                collect(group);
+                flush(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            group.forEach(p -> p.result().completeExceptionally(
+                    new IllegalStateException("Application is shutting down")));
+        }
+    }
+
+    private void collect(List<PendingTransfer> group) throws InterruptedException {
+        PendingTransfer first = queue.take();
+        group.add(first);
+        long deadline = first.enqueuedAt() + maxWaitNanos;
+        while (group.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingTransfer next = remaining > 0
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<PendingTransfer> group) {
+        long flushStart = System.nanoTime();
+        group.forEach(p -> addedLatency.record(flushStart - p.enqueuedAt(), TimeUnit.NANOSECONDS));
+        groupSize.record(group.size());
+
+        List<RuntimeException> rejections;
+        try {
+            rejections = transferEngine.transferGroup(group.stream().map(PendingTransfer::request).toList());
+        } catch (RuntimeException ex) {
+            log.debug("Group of {} transfers rolled back", group.size(), ex);
+            group.forEach(p -> p.result().completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            CompletableFuture<Void> result = group.get(i).result();
+            if (rejections.get(i) == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(rejections.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.annasozonova.bank.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of single-threaded executors ("lanes") for asynchronous transfers.
+ * <p>
+ * Work is routed by the hash of its source card ID, so all transfers from one card
+ * run one after another on the same lane and never compete for that card's row lock,
+ * while transfers from different cards proceed in parallel on other lanes.
+ * Each lane has a bounded queue; submissions beyond it are rejected.
+ * </p>
+ */
+@Component
+public class TransferLanes {
+
+    private final ThreadPoolExecutor[] lanes;
+
+    @Autowired
+    public TransferLanes(@Value("${bank.transfer.async.lanes}") int laneCount,
+                         @Value("${bank.transfer.async.queue-capacity}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String threadName = "transfer-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        Gauge.builder("bank.transfer.async.queued", this, TransferLanes::queuedCount)
+                .description("Asynchronous transfers waiting in lane queues")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueues a task on the lane owning the given card.
+     *
+     * @param cardId card whose transfers must be serialized
+     * @param task   work to run
+     * @throws RejectedExecutionException if the lane queue is full or lanes are shut down
+     */
+    public void submit(UUID cardId, Runnable task) {
+        lanes[Math.floorMod(cardId.hashCode(), lanes.length)].execute(task);
+    }
+
+    private int queuedCount() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Stops accepting work and lets queued transfers finish for a short grace period.
+     * Transfers still queued afterwards stay {@code PENDING} and are resumed on next start.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
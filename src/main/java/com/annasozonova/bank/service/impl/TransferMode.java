@@ -0,0 +1,19 @@
+package com.annasozonova.bank.service.impl;
+
+/**
+ * Strategy used by {@link CardServiceImpl} to apply a funds transfer.
+ * Selected with the {@code bank.transfer.mode} property.
+ */
+public enum TransferMode {
+
+    /**
+     * Loads both cards with {@code SELECT ... FOR UPDATE} and changes balances in Java.
+     */
+    LOCKING,
+
+    /**
+     * Applies the debit and the credit as two conditional {@code UPDATE} statements
+     * and decides success from the affected row counts, without loading cards.
+     */
+    CONDITIONAL_UPDATE
+}
@@ -1,46 +1,80 @@
 package com.annasozonova.bank.util;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Arrays;
 
 /**
  * Utility class for encrypting and decrypting card numbers using AES.
+ * <p>
+ * New payloads are AES-GCM with a random 96-bit IV per value, laid out as
+ * {@code [version][IV][ciphertext + tag]} with version {@value #VERSION_GCM}. Payloads
+ * written before the header existed are plain AES/ECB and are still decrypted: a value
+ * whose first byte is not the version, or whose GCM tag does not verify, is read as ECB.
+ * They are re-encrypted with GCM whenever the card number is written again.
+ * </p>
+ * <p>
+ * Cipher instances and the IV generator are created once per thread and re-initialised
+ * for every call, so no call pays for provider lookup or key setup.
+ * </p>
  * <p><b>Note:</b> Uses a hardcoded symmetric key for simplicity.
  * This approach is not secure for production.</p>
  */
 public class CardCryptoUtil {
 
     private static final String ALGORITHM = "AES";
+    private static final String GCM = "AES/GCM/NoPadding";
+    private static final String LEGACY_ECB = "AES/ECB/PKCS5Padding";
+
+    private static final byte VERSION_GCM = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int HEADER_LENGTH = 1 + IV_LENGTH;
 
     /**
      * 128-bit symmetric key (insecure: hardcoded).
      */
     private static final byte[] SECRET_KEY = "1234567890123456".getBytes();
 
-    private static Key getKey() {
-        return new SecretKeySpec(SECRET_KEY, ALGORITHM);
-    }
+    private static final Key KEY = new SecretKeySpec(SECRET_KEY, ALGORITHM);
+
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> cipher(GCM));
+    private static final ThreadLocal<Cipher> ECB_CIPHER = ThreadLocal.withInitial(() -> cipher(LEGACY_ECB));
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
 
     /**
-     * Encrypts the given plain text using AES.
+     * Encrypts the given plain text using AES-GCM.
      *
      * @param plainText raw card number
-     * @return encrypted byte array
+     * @return version header, IV and ciphertext with tag
      * @throws RuntimeException if encryption fails
      */
     public static byte[] encrypt(String plainText) {
+        byte[] iv = new byte[IV_LENGTH];
+        RANDOM.get().nextBytes(iv);
+        byte[] plain = plainText.getBytes(StandardCharsets.UTF_8);
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, getKey());
-            return cipher.doFinal(plainText.getBytes());
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, KEY, new GCMParameterSpec(TAG_BITS, iv));
+            ByteBuffer out = ByteBuffer.allocate(HEADER_LENGTH + cipher.getOutputSize(plain.length));
+            out.put(VERSION_GCM).put(iv);
+            cipher.doFinal(ByteBuffer.wrap(plain), out);
+            return out.array();
         } catch (Exception e) {
             throw new RuntimeException("Encryption error", e);
         }
     }
 
     /**
-     * Decrypts the given AES-encrypted byte array.
+     * Decrypts a card number encrypted by {@link #encrypt(String)} or by the former
+     * AES/ECB scheme.
      *
      * @param cipherBytes encrypted card number
      * @return decrypted plain text
@@ -48,11 +82,48 @@ public class CardCryptoUtil {
      */
     public static String decrypt(byte[] cipherBytes) {
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, getKey());
-            return new String(cipher.doFinal(cipherBytes));
+            if (cipherBytes.length > HEADER_LENGTH && cipherBytes[0] == VERSION_GCM) {
+                try {
+                    return decryptGcm(cipherBytes);
+                } catch (AEADBadTagException e) {
+                    // Not a GCM payload: a legacy ECB value that happens to start with the version byte
+                    if (!isLegacyLength(cipherBytes)) {
+                        throw e;
+                    }
+                }
+            }
+            return decryptLegacy(cipherBytes);
         } catch (Exception e) {
             throw new RuntimeException("Decryption error", e);
         }
     }
-}
\ No newline at end of file
+
+    private static String decryptGcm(byte[] cipherBytes) throws GeneralSecurityException {
+        Cipher cipher = GCM_CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, KEY,
+                new GCMParameterSpec(TAG_BITS, Arrays.copyOfRange(cipherBytes, 1, HEADER_LENGTH)));
+        byte[] plain = cipher.doFinal(cipherBytes, HEADER_LENGTH, cipherBytes.length - HEADER_LENGTH);
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    private static String decryptLegacy(byte[] cipherBytes) throws GeneralSecurityException {
+        Cipher cipher = ECB_CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, KEY);
+        return new String(cipher.doFinal(cipherBytes), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * ECB with PKCS#5 padding always produces whole 16-byte blocks.
+     */
+    private static boolean isLegacyLength(byte[] cipherBytes) {
+        return cipherBytes.length % 16 == 0;
+    }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + transformation + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads card import rows from an input stream one line at a time.
+ * <p>
+ * Only the current line is held in memory, so callers decide how many rows are kept by
+ * the size of the batches they request. Rows that cannot be parsed are returned with an
+ * error instead of a request, so one bad line does not stop the import. Blank lines
+ * are skipped but counted, so line numbers match the uploaded file.
+ * </p>
+ */
+public abstract class CardImportReader implements Closeable {
+
+    private static final String USER_ID = "userId";
+    private static final String NUMBER = "number";
+    private static final String EXPIRY_DATE = "expiryDate";
+    private static final String INITIAL_BALANCE = "initialBalance";
+
+    private final BufferedReader in;
+    private long lineNumber;
+
+    /**
+     * A parsed input row.
+     *
+     * @param line    line number in the input, starting at 1
+     * @param request parsed card, or {@code null} if the row could not be parsed
+     * @param error   reason the row could not be parsed, or {@code null}
+     */
+    public record Row(long line, CreateCardRequest request, String error) {
+    }
+
+    /**
+     * Creates a reader for the given format. For CSV, the header row is read right away.
+     *
+     * @param format       input format
+     * @param in           source stream, read as UTF-8
+     * @param objectMapper mapper used for NDJSON rows
+     * @return reader positioned on the first data row
+     * @throws IOException       if the header cannot be read
+     * @throws BusinessException if the CSV header lacks a required column
+     */
+    public static CardImportReader create(CardImportFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(reader, objectMapper);
+            case CSV -> new CsvReader(reader);
+        };
+    }
+
+    private CardImportReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads up to {@code size} rows.
+     *
+     * @param size maximum number of rows
+     * @return rows in input order; empty at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    public List<Row> nextBatch(int size) throws IOException {
+        List<Row> rows = new ArrayList<>(size);
+        String line;
+        while (rows.size() < size && (line = nextLine()) != null) {
+            if (!line.isBlank()) {
+                rows.add(parseRow(lineNumber, line));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Parses a non-blank line.
+     *
+     * @param line    line number
+     * @param content line without its terminator
+     * @return parsed row
+     */
+    protected abstract Row parseRow(long line, String content);
+
+    String nextLine() throws IOException {
+        String line = in.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * Builds a row from the textual field values; missing values stay {@code null} and
+     * are reported by bean validation later.
+     */
+    private static Row toRow(long line, String userId, String number, String expiryDate, String initialBalance) {
+        UUID owner;
+        LocalDate expiry;
+        BigDecimal balance;
+        try {
+            owner = userId == null ? null : UUID.fromString(userId);
+        } catch (IllegalArgumentException ex) {
+            return new Row(line, null, "Invalid userId: " + userId);
+        }
+        try {
+            expiry = expiryDate == null ? null : LocalDate.parse(expiryDate);
+        } catch (DateTimeParseException ex) {
+            return new Row(line, null, "Invalid expiryDate: " + expiryDate);
+        }
+        try {
+            balance = initialBalance == null ? null : new BigDecimal(initialBalance);
+        } catch (NumberFormatException ex) {
+            return new Row(line, null, "Invalid initialBalance: " + initialBalance);
+        }
+        return new Row(line, new CreateCardRequest(owner, number, expiry, balance), null);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    /**
+     * One JSON object per line.
+     */
+    private static final class NdjsonReader extends CardImportReader {
+
+        private final ObjectReader json;
+
+        NdjsonReader(BufferedReader in, ObjectMapper objectMapper) {
+            super(in);
+            this.json = objectMapper.reader()
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+        }
+
+        @Override
+        protected Row parseRow(long line, String content) {
+            JsonNode node;
+            try {
+                node = json.readTree(content);
+            } catch (JsonProcessingException ex) {
+                return new Row(line, null, "Malformed JSON");
+            }
+            if (!node.isObject()) {
+                return new Row(line, null, "Row must be a JSON object");
+            }
+            return toRow(line, text(node, USER_ID), text(node, NUMBER), text(node, EXPIRY_DATE),
+                    text(node, INITIAL_BALANCE));
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            if (value == null || value.isNull()) {
+                return null;
+            }
+            return blankToNull(value.isNumber() ? value.decimalValue().toPlainString() : value.asText());
+        }
+    }
+
+    /**
+     * Comma-separated values; the header row names the columns in any order.
+     * Values may be enclosed in double quotes but must not contain commas.
+     */
+    private static final class CsvReader extends CardImportReader {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvReader(BufferedReader in) throws IOException {
+            super(in);
+            String header;
+            do {
+                header = nextLine();
+            } while (header != null && header.isBlank());
+            if (header == null) {
+                return;
+            }
+            String[] names = split(header);
+            for (int i = 0; i < names.length; i++) {
+                columns.put(names[i], i);
+            }
+            for (String required : List.of(USER_ID, NUMBER, EXPIRY_DATE, INITIAL_BALANCE)) {
+                if (!columns.containsKey(required)) {
+                    throw new BusinessException("CSV header must contain column " + required);
+                }
+            }
+        }
+
+        @Override
+        protected Row parseRow(long line, String content) {
+            String[] values = split(content);
+            return toRow(line, value(values, USER_ID), value(values, NUMBER), value(values, EXPIRY_DATE),
+                    value(values, INITIAL_BALANCE));
+        }
+
+        private String value(String[] values, String column) {
+            int index = columns.get(column);
+            return index < values.length ? blankToNull(values[index]) : null;
+        }
+
+        private static String[] split(String line) {
+            String[] values = line.split(",", -1);
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i].strip();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+    }
+}
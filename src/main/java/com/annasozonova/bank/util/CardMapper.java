@@ -4,9 +4,11 @@ import com.annasozonova.bank.dto.CardDto;
 import com.annasozonova.bank.dto.CreateCardRequest;
 import com.annasozonova.bank.model.Card;
 import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
 import com.annasozonova.bank.model.User;
+import com.annasozonova.bank.repository.CardSnapshot;
+import com.annasozonova.bank.repository.CardSummary;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 /**
@@ -26,15 +28,16 @@ public class CardMapper {
         byte[] encrypted = CardCryptoUtil.encrypt(rawNumber);
         String mask = MaskUtil.mask(rawNumber);
 
-        BigDecimal balance = req.getInitialBalance() != null
-                ? req.getInitialBalance()
-                : BigDecimal.ZERO;
+        Money balance = req.getInitialBalance() != null
+                ? Money.of(req.getInitialBalance())
+                : Money.ZERO;
 
         OffsetDateTime now = OffsetDateTime.now();
 
         return Card.builder()
                 .cardNumberEnc(encrypted)
                 .cardMask(mask)
+                .last4(MaskUtil.lastFour(rawNumber))
                 .owner(owner)
                 .expirationDate(req.getExpiryDate())
                 .balance(balance)
@@ -56,7 +59,39 @@ public class CardMapper {
                 card.getCardMask(),
                 card.getExpirationDate(),
                 card.getStatus().name(),
-                card.getBalance()
+                card.getBalance().toBigDecimal()
+        );
+    }
+
+    /**
+     * Converts a {@link CardSummary} projection into a {@link CardDto}.
+     *
+     * @param card the card projection
+     * @return card DTO
+     */
+    public static CardDto toDto(CardSummary card) {
+        return new CardDto(
+                card.id(),
+                card.cardMask(),
+                card.expirationDate(),
+                card.status().name(),
+                card.balance().toBigDecimal()
+        );
+    }
+
+    /**
+     * Converts a {@link CardSnapshot} into a {@link CardDto}.
+     *
+     * @param card the card snapshot
+     * @return card DTO
+     */
+    public static CardDto toDto(CardSnapshot card) {
+        return new CardDto(
+                card.id(),
+                card.cardMask(),
+                card.expirationDate(),
+                card.status().name(),
+                card.balance().toBigDecimal()
         );
     }
 }
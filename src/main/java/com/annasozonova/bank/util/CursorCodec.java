@@ -0,0 +1,71 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Utility for encoding keyset pagination positions into opaque, URL-safe cursors.
+ * <p>
+ * A position is a timestamp (microsecond precision, as stored by PostgreSQL) and a UUID
+ * tie-breaker. Clients must treat the cursor as an opaque token.
+ * </p>
+ */
+public class CursorCodec {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 3;
+
+    /**
+     * Keyset position: the sort timestamp and ID of the last row already returned.
+     *
+     * @param timestamp sort timestamp of the row
+     * @param id        ID of the row
+     */
+    public record Position(OffsetDateTime timestamp, UUID id) {
+    }
+
+    /**
+     * Encodes the position of a row into a cursor.
+     *
+     * @param timestamp sort timestamp of the row
+     * @param id        ID of the row
+     * @return URL-safe cursor string
+     */
+    public static String encode(OffsetDateTime timestamp, UUID id) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant());
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(micros)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(OffsetDateTime, UUID)}.
+     *
+     * @param cursor cursor string
+     * @return decoded position
+     * @throws BusinessException if the cursor is malformed
+     */
+    public static Position decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new BusinessException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        OffsetDateTime timestamp = Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS)
+                .atOffset(ZoneOffset.UTC);
+        return new Position(timestamp, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
@@ -16,7 +16,28 @@ public class MaskUtil {
         if (cardNumber == null || cardNumber.length() < 4) {
             return cardNumber;
         }
-        String last4 = cardNumber.substring(cardNumber.length() - 4);
-        return "**** **** **** " + last4;
+        return "**** **** **** " + lastFour(cardNumber);
+    }
+
+    /**
+     * Returns the last 4 characters of the provided card number.
+     *
+     * @param cardNumber raw card number with at least 4 digits
+     * @return last 4 digits (e.g., "5678")
+     */
+    public static String lastFour(String cardNumber) {
+        return cardNumber.substring(cardNumber.length() - 4);
+    }
+
+    /**
+     * Extracts the last 4 digits from a card search term such as "5678",
+     * "**** 5678" or a full masked number; other characters are ignored.
+     *
+     * @param term search term entered by the user
+     * @return last 4 digits of the term, or {@code null} if it has fewer than 4 digits
+     */
+    public static String lastFourDigits(String term) {
+        String digits = term.replaceAll("\\D", "");
+        return digits.length() < 4 ? null : lastFour(digits);
     }
 }
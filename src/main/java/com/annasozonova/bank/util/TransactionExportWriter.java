@@ -0,0 +1,170 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Writes {@code transactions} rows straight from a JDBC result set to an output stream.
+ * Archived transactions, which are not in the database, are written from their
+ * {@link TransactionDto} in the same layout.
+ * <p>
+ * Field names and values match {@link TransactionDto}. Nothing is kept per row, so the
+ * memory used by an export does not depend on its length. {@link #close()} flushes
+ * buffered output but leaves the target stream open.
+ * </p>
+ */
+public abstract class TransactionExportWriter implements Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * Creates a writer for the given format.
+     *
+     * @param format output format
+     * @param out    target stream
+     * @return writer; the header, if any, is already written
+     * @throws IOException if the header cannot be written
+     */
+    public static TransactionExportWriter create(TransactionExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    /**
+     * Writes the current row of the result set.
+     *
+     * @param rs result set positioned on a {@code transactions} row
+     * @throws SQLException if a column cannot be read
+     * @throws IOException  if the row cannot be written
+     */
+    public void write(ResultSet rs) throws SQLException, IOException {
+        write(rs.getObject("id", UUID.class),
+                rs.getObject("from_card_id", UUID.class),
+                rs.getObject("to_card_id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getObject("transfer_date", OffsetDateTime.class),
+                rs.getString("status"),
+                rs.getString("description"));
+    }
+
+    /**
+     * Writes a transaction that is no longer in the database.
+     *
+     * @param transaction archived transaction
+     * @throws IOException if the row cannot be written
+     */
+    public void write(TransactionDto transaction) throws IOException {
+        write(transaction.getId(),
+                transaction.getFromCardId(),
+                transaction.getToCardId(),
+                transaction.getAmount(),
+                transaction.getTransferDate(),
+                transaction.getStatus(),
+                transaction.getDescription());
+    }
+
+    abstract void write(UUID id, UUID fromCardId, UUID toCardId, BigDecimal amount, OffsetDateTime transferDate,
+                        String status, String description) throws IOException;
+
+    private static String transferDate(OffsetDateTime transferDate) {
+        return transferDate.withOffsetSameInstant(ZoneOffset.UTC).toString();
+    }
+
+    private static final class NdjsonWriter extends TransactionExportWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = JSON.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(UUID id, UUID fromCardId, UUID toCardId, BigDecimal amount, OffsetDateTime transferDate,
+                   String status, String description) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("id", id.toString());
+            json.writeStringField("fromCardId", fromCardId.toString());
+            json.writeStringField("toCardId", toCardId.toString());
+            json.writeNumberField("amount", amount);
+            json.writeStringField("transferDate", transferDate(transferDate));
+            json.writeStringField("status", status);
+            json.writeStringField("description", description);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    private static final class CsvWriter extends TransactionExportWriter {
+
+        private final Writer csv;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.csv.write("id,fromCardId,toCardId,amount,transferDate,status,description\r\n");
+        }
+
+        @Override
+        void write(UUID id, UUID fromCardId, UUID toCardId, BigDecimal amount, OffsetDateTime transferDate,
+                   String status, String description) throws IOException {
+            csv.write(id.toString());
+            csv.write(',');
+            csv.write(fromCardId.toString());
+            csv.write(',');
+            csv.write(toCardId.toString());
+            csv.write(',');
+            csv.write(amount.toPlainString());
+            csv.write(',');
+            csv.write(transferDate(transferDate));
+            csv.write(',');
+            csv.write(status);
+            csv.write(',');
+            writeQuoted(description);
+            csv.write("\r\n");
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                csv.write(value);
+                return;
+            }
+            csv.write('"');
+            csv.write(value.replace("\"", "\"\""));
+            csv.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.flush();
+        }
+    }
+}
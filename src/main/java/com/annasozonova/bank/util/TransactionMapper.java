@@ -0,0 +1,29 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.model.Transaction;
+
+/**
+ * Utility for converting {@link Transaction} entities into DTOs.
+ */
+public class TransactionMapper {
+
+    /**
+     * Converts a {@link Transaction} entity into a {@link TransactionDto}.
+     * Only the card IDs are read, so lazy card associations stay uninitialized.
+     *
+     * @param tx transaction entity
+     * @return transaction DTO
+     */
+    public static TransactionDto toDto(Transaction tx) {
+        return new TransactionDto(
+                tx.getId(),
+                tx.getFromCard().getId(),
+                tx.getToCard().getId(),
+                tx.getAmount().toBigDecimal(),
+                tx.getTransferDate(),
+                tx.getStatus().name(),
+                tx.getDescription()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.annasozonova.bank.util;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Utility defining a total order of {@link UUID}s that matches PostgreSQL's {@code uuid} ordering.
+ * <p>
+ * {@link UUID#compareTo(UUID)} compares signed halves, while PostgreSQL compares the raw bytes,
+ * so the two disagree whenever the high bit is set. Code that locks rows in a deterministic order
+ * or merges keyset pages must use this comparator to stay consistent with {@code ORDER BY id}.
+ * </p>
+ */
+public class UuidOrdering {
+
+    /**
+     * Comparator ordering UUIDs as unsigned 128-bit values (PostgreSQL byte order).
+     */
+    public static final Comparator<UUID> POSTGRES_ORDER = UuidOrdering::compare;
+
+    /**
+     * Compares two UUIDs as unsigned 128-bit values.
+     *
+     * @param a first UUID
+     * @param b second UUID
+     * @return negative, zero or positive as {@code a} is less than, equal to or greater than {@code b}
+     */
+    public static int compare(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0
+                ? high
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
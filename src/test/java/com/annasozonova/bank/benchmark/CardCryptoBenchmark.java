@@ -0,0 +1,69 @@
+package com.annasozonova.bank.benchmark;
+
+import com.annasozonova.bank.util.CardCryptoUtil;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Card number encryption throughput on one thread, i.e. per core, as paid by card import
+ * and card updates. {@code legacyEcb*} repeat the former scheme, which looked up a new
+ * {@link Cipher} and built a key for every call; {@code gcm*} run {@link CardCryptoUtil}
+ * with its per-thread ciphers. {@code decryptLegacyPayload} is the ECB fallback for rows
+ * written before the versioned format.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.include=CardCryptoBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class CardCryptoBenchmark {
+
+    private static final String NUMBER = "1234567812345678";
+    private static final byte[] KEY = "1234567890123456".getBytes();
+
+    private byte[] gcmPayload;
+    private byte[] legacyPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        gcmPayload = CardCryptoUtil.encrypt(NUMBER);
+        legacyPayload = legacyEcbEncrypt();
+    }
+
+    @Benchmark
+    public byte[] legacyEcbEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "AES"));
+        return cipher.doFinal(NUMBER.getBytes());
+    }
+
+    @Benchmark
+    public String legacyEcbDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY, "AES"));
+        return new String(cipher.doFinal(legacyPayload));
+    }
+
+    @Benchmark
+    public byte[] gcmEncrypt() {
+        return CardCryptoUtil.encrypt(NUMBER);
+    }
+
+    @Benchmark
+    public String gcmDecrypt() {
+        return CardCryptoUtil.decrypt(gcmPayload);
+    }
+
+    @Benchmark
+    public String decryptLegacyPayload() {
+        return CardCryptoUtil.decrypt(legacyPayload);
+    }
+}
@@ -0,0 +1,70 @@
+package com.annasozonova.bank.benchmark;
+
+import com.annasozonova.bank.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory part of a transfer with {@link BigDecimal} and {@link Money} balances:
+ * the funds check, the debit and the credit, as done by {@code TransferEngine} while both
+ * cards are locked. Each call moves the amount back to the card it came from last time,
+ * so the balances never run out.
+ * <p>
+ * The gc profiler enabled by the {@code benchmark} profile reports allocated bytes per
+ * transfer as {@code gc.alloc.rate.norm}.
+ * Run with {@code mvn -Pbenchmark verify -Djmh.include=MoneyArithmeticBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final BigDecimal START = new BigDecimal("1000.00");
+
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private BigDecimal decimalAmount;
+
+    private Money moneyFrom;
+    private Money moneyTo;
+    private Money moneyAmount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        decimalFrom = START;
+        decimalTo = START;
+        decimalAmount = new BigDecimal("12.34");
+        moneyFrom = Money.of(START);
+        moneyTo = Money.of(START);
+        moneyAmount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        if (decimalFrom.compareTo(decimalAmount) < 0) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+        BigDecimal debited = decimalFrom.subtract(decimalAmount);
+        decimalFrom = decimalTo.add(decimalAmount);
+        decimalTo = debited;
+        bh.consume(debited);
+    }
+
+    @Benchmark
+    public void money(Blackhole bh) {
+        if (moneyFrom.isLessThan(moneyAmount)) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+        Money debited = moneyFrom.minus(moneyAmount);
+        moneyFrom = moneyTo.plus(moneyAmount);
+        moneyTo = debited;
+        bh.consume(debited);
+    }
+}
@@ -0,0 +1,85 @@
+package com.annasozonova.bank.benchmark;
+
+import com.annasozonova.bank.BankApplication;
+import com.annasozonova.bank.dto.CardDto;
+import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.dto.CreateUserRequest;
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.dto.UserDto;
+import com.annasozonova.bank.service.CardService;
+import com.annasozonova.bank.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code LOCKING} and {@code CONDITIONAL_UPDATE} transfer modes end to end.
+ * <p>
+ * Needs a running PostgreSQL (see docker-compose.yml; override with {@code SPRING_DATASOURCE_URL}).
+ * Every trial boots the application without the web layer, creates one user with two cards and
+ * moves one cent back and forth between them, so all threads contend on the same two rows.
+ * Run with {@code mvn -Pbenchmark verify -Djmh.include=TransferModeBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class TransferModeBenchmark {
+
+    @Param({"LOCKING", "CONDITIONAL_UPDATE"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private TransferRequest forward;
+    private TransferRequest backward;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "bank.transfer.mode=" + mode,
+                        "spring.jpa.show-sql=false",
+                        "jwt.secret=" + Base64.getEncoder().encodeToString(new byte[64]))
+                .run();
+        cardService = context.getBean(CardService.class);
+
+        UserDto user = context.getBean(UserService.class).createUser(new CreateUserRequest(
+                "bench-" + UUID.randomUUID() + "@example.com", "benchmark", "Bench", "User"));
+        CardDto first = createCard(user.getId());
+        CardDto second = createCard(user.getId());
+
+        BigDecimal cent = new BigDecimal("0.01");
+        forward = new TransferRequest(first.getId(), second.getId(), cent);
+        backward = new TransferRequest(second.getId(), first.getId(), cent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+        cardService.transferFunds(ThreadLocalRandom.current().nextBoolean() ? forward : backward);
+    }
+
+    private CardDto createCard(UUID ownerId) {
+        String number = String.format("%016d", ThreadLocalRandom.current().nextLong(1_000_000_000_000_000L));
+        return cardService.createCard(new CreateCardRequest(
+                ownerId, number, LocalDate.now().plusYears(3), new BigDecimal("1000000.00")));
+    }
+}
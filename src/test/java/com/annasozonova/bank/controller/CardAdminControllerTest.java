@@ -0,0 +1,123 @@
+package com.annasozonova.bank.controller;
+
+import com.annasozonova.bank.dto.BalanceMismatchDto;
+import com.annasozonova.bank.dto.BulkCardStatusRequest;
+import com.annasozonova.bank.dto.BulkCardStatusResultDto;
+import com.annasozonova.bank.dto.CardContentionDto;
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.security.CustomUserDetailsService;
+import com.annasozonova.bank.service.CardImportService;
+import com.annasozonova.bank.service.CardService;
+import com.annasozonova.bank.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CardAdminController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class CardAdminControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private CardService cardService;
+    @MockitoBean private CardImportService importService;
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void shouldReturnMostContendedCards() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(cardService.getContendedCards(5)).thenReturn(List.of(
+                new CardContentionDto(cardId, 1520, 0, 340, 42, 3)
+        ));
+
+        mockMvc.perform(get("/api/admin/cards/contention").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cardId").value(cardId.toString()))
+                .andExpect(jsonPath("$[0].contendedMs").value(1520))
+                .andExpect(jsonPath("$[0].conflicts").value(3));
+    }
+
+    @Test
+    void shouldResetContentionStats() throws Exception {
+        mockMvc.perform(delete("/api/admin/cards/contention"))
+                .andExpect(status().isNoContent());
+
+        verify(cardService).resetContentionStats();
+    }
+
+    @Test
+    void shouldReturnBalanceMismatches() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(cardService.getBalanceMismatches(10)).thenReturn(List.of(
+                new BalanceMismatchDto(cardId, new BigDecimal("150.00"), new BigDecimal("100.00"),
+                        OffsetDateTime.parse("2025-05-01T02:30:00Z"))
+        ));
+
+        mockMvc.perform(get("/api/admin/cards/balance-mismatches").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cardId").value(cardId.toString()))
+                .andExpect(jsonPath("$[0].storedBalance").value(150.00))
+                .andExpect(jsonPath("$[0].ledgerBalance").value(100.00));
+    }
+
+    @Test
+    void shouldBlockCardsInBulk() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        when(cardService.bulkBlockCards(new BulkCardStatusRequest(List.of(cardId), List.of(ownerId))))
+                .thenReturn(new BulkCardStatusResultDto(4, 3));
+
+        mockMvc.perform(post("/api/admin/cards/bulk/block")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardIds\":[\"" + cardId + "\"],\"ownerIds\":[\"" + ownerId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.selected").value(4))
+                .andExpect(jsonPath("$.updated").value(3));
+    }
+
+    @Test
+    void shouldRejectNullIdInBulkActivation() throws Exception {
+        mockMvc.perform(post("/api/admin/cards/bulk/activate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cardIds\":[null]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cardService);
+    }
+
+    @Test
+    void shouldStreamImportReport() throws Exception {
+        when(importService.importCards(eq(CardImportFormat.CSV), any(InputStream.class)))
+                .thenReturn(out -> out.write("{\"processed\":1,\"imported\":1,\"failed\":0,\"finished\":true}\n"
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult started = mockMvc.perform(post("/api/admin/cards/import")
+                        .param("format", "CSV")
+                        .contentType("text/csv")
+                        .content("userId,number,expiryDate,initialBalance\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"processed\":1,\"imported\":1,\"failed\":0,\"finished\":true}\n"));
+    }
+}
@@ -8,6 +8,7 @@ import com.annasozonova.bank.repository.UserRepository;
 import com.annasozonova.bank.security.CustomUserDetailsService;
 import com.annasozonova.bank.security.UserPrincipal;
 import com.annasozonova.bank.service.CardService;
+import com.annasozonova.bank.service.TransactionService;
 import com.annasozonova.bank.service.UserService;
 import com.annasozonova.bank.util.JwtUtil;
 
@@ -26,6 +27,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -44,6 +46,7 @@ class CardControllerTest {
 
     @MockitoBean UserRepository userRepository;
     @MockitoBean CardService cardService;
+    @MockitoBean TransactionService transactionService;
     @MockitoBean UserService userService;
 
     @MockitoBean JwtUtil jwtUtil;
@@ -125,6 +128,40 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.balance").value(200.00));
     }
 
+    @Test
+    void shouldRejectCreateCardWithThreeDecimalPlaces() throws Exception {
+        CreateCardRequest req = new CreateCardRequest(
+                UUID.randomUUID(),
+                "1234123412345678",
+                LocalDate.of(2030, 1, 1),
+                new BigDecimal("100.001")
+        );
+
+        mockMvc.perform(post("/api/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).createCard(any(CreateCardRequest.class));
+    }
+
+    @Test
+    void shouldRejectUpdateCardWithOutOfRangeBalance() throws Exception {
+        CreateCardRequest req = new CreateCardRequest(
+                UUID.randomUUID(),
+                "4321432143214321",
+                LocalDate.of(2032, 3, 15),
+                new BigDecimal("99999999999999999.99")
+        );
+
+        mockMvc.perform(put("/api/cards/{id}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).updateCard(any(UUID.class), any(CreateCardRequest.class));
+    }
+
     @Test
     void shouldDeleteCard() throws Exception {
         UUID cardId = UUID.randomUUID();
@@ -435,4 +472,304 @@ class CardControllerTest {
         verify(cardService).requestBlockCard(eq(userId), eq(cardId));
     }
 
-}
\ No newline at end of file
+    @Test
+    void listCardsSlice_shouldReturnOwnCardsForUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        UUID cardId = UUID.randomUUID();
+        CardDto dto = new CardDto(
+                cardId,
+                "**** **** **** 2222",
+                LocalDate.of(2032, 1, 1),
+                CardStatus.ACTIVE.name(),
+                new BigDecimal("300.00")
+        );
+        when(cardService.getUserCardsSlice(userId, "2222", CardStatus.ACTIVE, "abc", 10))
+                .thenReturn(new CardSliceDto(List.of(dto), "next", true));
+
+        mockMvc.perform(get("/api/cards/slice")
+                        .param("maskedNumber", "2222")
+                        .param("status", "ACTIVE")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(cardId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(cardService, never()).getAllCardsSlice(any(), anyInt());
+    }
+
+    @Test
+    void getCardTransactions_shouldReturnOwnHistoryForUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        UUID txId = UUID.randomUUID();
+        TransactionDto tx = new TransactionDto(
+                txId,
+                cardId,
+                UUID.randomUUID(),
+                new BigDecimal("25.00"),
+                OffsetDateTime.parse("2025-05-01T12:30:00Z"),
+                "COMPLETED",
+                null
+        );
+        when(transactionService.getUserCardHistory(userId, cardId, "abc", 10))
+                .thenReturn(new TransactionHistoryDto(List.of(tx), "next", true));
+
+        mockMvc.perform(get("/api/cards/{id}/transactions", cardId)
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(txId.toString()))
+                .andExpect(jsonPath("$.content[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(transactionService, never()).getCardHistory(any(), any(), anyInt());
+    }
+
+    @Test
+    void getMonthlyStats_shouldReturnOwnCardTotalsForUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(transactionService.getUserCardStats(userId, cardId, StatsPeriod.MONTH, from, to))
+                .thenReturn(List.of(new CardStatsDto(LocalDate.of(2025, 5, 1), 42,
+                        new BigDecimal("1200.00"), new BigDecimal("830.50"), new BigDecimal("500.00"))));
+
+        mockMvc.perform(get("/api/cards/{id}/stats/monthly", cardId)
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].periodStart").value("2025-05-01"))
+                .andExpect(jsonPath("$[0].transferCount").value(42))
+                .andExpect(jsonPath("$[0].totalOut").value(830.50));
+
+        verify(transactionService, never()).getCardStats(any(), any(), any(), any());
+    }
+
+    @Test
+    void transferBatch_shouldReturnPerItemResultsForUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        BatchTransferRequest request = new BatchTransferRequest(List.of(
+                new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("10.00")),
+                new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("5000.00"))
+        ));
+        UUID txId = UUID.randomUUID();
+        when(cardService.transferFundsBatch(eq(userId), anyList())).thenReturn(List.of(
+                new TransferResultDto(0, "COMPLETED", txId, null),
+                new TransferResultDto(1, "REJECTED", null, "Insufficient funds on source card")
+        ));
+
+        mockMvc.perform(post("/api/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[0].transactionId").value(txId.toString()))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].message").value("Insufficient funds on source card"));
+    }
+
+    @Test
+    void transferBatch_shouldReturnBadRequest_whenItemIsInvalid() throws Exception {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        BatchTransferRequest request = new BatchTransferRequest(List.of(
+                new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("-1.00"))
+        ));
+
+        mockMvc.perform(post("/api/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).transferFundsBatch(any(), anyList());
+    }
+
+    @Test
+    void transferFunds_shouldUseIdempotencyKey_whenHeaderPresent() throws Exception {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        TransferRequest request = new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                new BigDecimal("100.00")
+        );
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", "retry-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(cardService).transferFundsIdempotent(eq(userId), eq("retry-42"), any(TransferRequest.class));
+        verify(cardService, never()).transferFunds(any(TransferRequest.class));
+    }
+
+    @Test
+    void transferFunds_shouldReturnAccepted_whenAsync() throws Exception {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        TransferRequest request = new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                new BigDecimal("100.00")
+        );
+        UUID txId = UUID.randomUUID();
+        when(cardService.submitTransfer(any(TransferRequest.class))).thenReturn(new TransactionDto(
+                txId,
+                request.getFromCardId(),
+                request.getToCardId(),
+                request.getAmount(),
+                OffsetDateTime.parse("2025-05-01T12:30:00Z"),
+                "PENDING",
+                null
+        ));
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/cards/transfer/" + txId))
+                .andExpect(jsonPath("$.id").value(txId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(cardService, never()).transferFunds(any(TransferRequest.class));
+    }
+
+    @Test
+    void getTransfer_shouldReturnOwnTransferStatusForUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .email("user@example.com")
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .enabled(true)
+                .roles(Set.of(new Role("USER")))
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())
+        );
+
+        UUID txId = UUID.randomUUID();
+        when(transactionService.getUserTransaction(userId, txId)).thenReturn(new TransactionDto(
+                txId,
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                new BigDecimal("100.00"),
+                OffsetDateTime.parse("2025-05-01T12:30:00Z"),
+                "FAILED",
+                "Insufficient funds on source card"
+        ));
+
+        mockMvc.perform(get("/api/cards/transfer/{transferId}", txId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.description").value("Insufficient funds on source card"));
+
+        verify(transactionService, never()).getTransaction(any());
+    }
+}
@@ -0,0 +1,61 @@
+package com.annasozonova.bank.controller;
+
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+import com.annasozonova.bank.security.CustomUserDetailsService;
+import com.annasozonova.bank.service.TransactionExportService;
+import com.annasozonova.bank.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TransactionExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TransactionExportControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private TransactionExportService exportService;
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void shouldStreamCardExportAsAttachment() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(exportService.exportCardTransactions(cardId, TransactionExportFormat.CSV))
+                .thenReturn(out -> out.write("id,amount\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult started = mockMvc.perform(get("/api/admin/export/cards/{id}/transactions", cardId)
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"card-" + cardId + "-transactions.csv\""))
+                .andExpect(content().string("id,amount\r\n"));
+    }
+
+    @Test
+    void shouldReturnNotFoundBeforeStreamingWhenUserIsMissing() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(exportService.exportUserTransactions(userId, TransactionExportFormat.NDJSON))
+                .thenThrow(new ResourceNotFoundException("User not found with id " + userId));
+
+        mockMvc.perform(get("/api/admin/export/users/{id}/transactions", userId))
+                .andExpect(status().isNotFound());
+    }
+}
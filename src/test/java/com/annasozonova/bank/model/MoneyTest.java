@@ -0,0 +1,42 @@
+package com.annasozonova.bank.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link Money}.
+ */
+class MoneyTest {
+
+    @Test
+    void shouldRoundTripDecimalAmounts() {
+        assertEquals(12345, Money.of(new BigDecimal("123.45")).minorUnits());
+        assertEquals(500, Money.of(new BigDecimal("5")).minorUnits());
+        assertEquals(new BigDecimal("123.45"), Money.of(new BigDecimal("123.450")).toBigDecimal());
+        assertEquals("0.07", new Money(7).toString());
+    }
+
+    @Test
+    void shouldRejectAmountsWithMoreThanTwoDecimals() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void shouldAddSubtractAndCompare() {
+        Money balance = Money.of(new BigDecimal("100.00"));
+        Money amount = Money.of(new BigDecimal("0.01"));
+
+        assertEquals(Money.of(new BigDecimal("99.99")), balance.minus(amount));
+        assertEquals(Money.of(new BigDecimal("100.01")), balance.plus(amount));
+        assertTrue(amount.isLessThan(balance));
+        assertFalse(balance.isLessThan(balance));
+    }
+
+    @Test
+    void shouldFailOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MAX_VALUE).plus(new Money(1)));
+    }
+}
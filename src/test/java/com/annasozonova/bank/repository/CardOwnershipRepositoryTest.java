@@ -0,0 +1,92 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.repository.CardOwnershipRepository.BalanceResult;
+import com.annasozonova.bank.repository.CardOwnershipRepository.BlockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the single-statement owner checks of {@link CardOwnershipRepository} against a
+ * real PostgreSQL. Skipped when Docker is not available.
+ */
+@JdbcTest
+@Import(CardOwnershipRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class CardOwnershipRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private CardOwnershipRepository ownershipRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID cardId = UUID.randomUUID();
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("INSERT INTO users (id, email, password_hash, enabled, created_at, updated_at) " +
+                "VALUES (?, 'owner@test.local', 'hash', true, now(), now())", ownerId);
+        jdbc.update("INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+                "status, balance, created_at, updated_at) " +
+                "VALUES (?, '\\x00'::bytea, '**** **** **** 1234', '1234', ?, DATE '2030-01-31', " +
+                "'ACTIVE', 100, now(), now())", cardId, ownerId);
+    }
+
+    @Test
+    void shouldBlockOwnCardOnce() {
+        assertEquals(BlockResult.BLOCKED, ownershipRepo.blockIfOwned(cardId, ownerId));
+        assertEquals(BlockResult.ALREADY_BLOCKED, ownershipRepo.blockIfOwned(cardId, ownerId));
+
+        assertEquals("BLOCKED", jdbc.queryForObject("SELECT status::text FROM cards WHERE id = ?", String.class, cardId));
+        assertEquals(1L, jdbc.queryForObject("SELECT version FROM cards WHERE id = ?", Long.class, cardId));
+    }
+
+    @Test
+    void shouldTellForeignCardFromMissingCard() {
+        assertEquals(BlockResult.FORBIDDEN, ownershipRepo.blockIfOwned(cardId, UUID.randomUUID()));
+        assertEquals(BlockResult.NOT_FOUND, ownershipRepo.blockIfOwned(UUID.randomUUID(), ownerId));
+
+        assertEquals("ACTIVE", jdbc.queryForObject("SELECT status::text FROM cards WHERE id = ?", String.class, cardId));
+    }
+
+    @Test
+    void shouldReadLedgerBalanceOfOwnCardOnly() {
+        jdbc.update("INSERT INTO postings (transaction_id, card_id, entry_type, amount, created_at) " +
+                "VALUES (NULL, ?, 'OPENING', 100, now()), (NULL, ?, 'CREDIT', 25, now())", cardId, cardId);
+
+        assertEquals(Optional.of(new BalanceResult(true, Money.of(new BigDecimal("125.00")))),
+                ownershipRepo.balanceIfOwned(cardId, ownerId));
+        assertEquals(Optional.of(new BalanceResult(false, null)),
+                ownershipRepo.balanceIfOwned(cardId, UUID.randomUUID()));
+        assertEquals(Optional.empty(), ownershipRepo.balanceIfOwned(UUID.randomUUID(), ownerId));
+    }
+}
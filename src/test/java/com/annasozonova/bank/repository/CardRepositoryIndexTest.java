@@ -0,0 +1,121 @@
+package com.annasozonova.bank.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks against a real PostgreSQL that card searches and listings are planned on
+ * the {@code cards} indexes. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class CardRepositoryIndexTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID ownerId;
+
+    /**
+     * 200 users with 20 cards each, so that a sequential scan is clearly the worse plan.
+     */
+    @BeforeEach
+    void seed() {
+        jdbc.update("INSERT INTO users (id, email, password_hash, enabled, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), 'user' || g || '@test.local', 'hash', true, now(), now() " +
+                "FROM generate_series(1, 200) g");
+        jdbc.update("INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+                "status, balance, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), '\\x00'::bytea, '**** **** **** ' || lpad(n::text, 4, '0'), " +
+                "lpad(n::text, 4, '0'), owner_id, DATE '2030-01-31', " +
+                "(CASE WHEN n % 3 = 0 THEN 'BLOCKED' ELSE 'ACTIVE' END)::card_status, 0, now(), now() " +
+                "FROM (SELECT u.id AS owner_id, row_number() OVER () AS n " +
+                "      FROM users u CROSS JOIN generate_series(1, 20)) c");
+        jdbc.execute("ANALYZE cards");
+        ownerId = jdbc.queryForObject("SELECT owner_id FROM cards WHERE last4 = '0042'", UUID.class);
+    }
+
+    @Test
+    void shouldFindCardsByLastFourDigitsWithIndex() {
+        Page<CardSummary> page = cardRepo.findSummariesByOwnerAndLast4(ownerId, "0042", PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("**** **** **** 0042", page.getContent().get(0).cardMask());
+        assertUsesIndex("idx_cards_owner_last4",
+                "SELECT * FROM cards WHERE owner_id = ? AND last4 = ?", ownerId, "0042");
+    }
+
+    @Test
+    void shouldFindCardsByShortMaskPattern() {
+        Page<CardSummary> page = cardRepo.findSummariesByOwnerAndMaskLike(ownerId, "%42%", PageRequest.of(0, 20));
+        List<CardSummary> slice = cardRepo.findByOwnerAndMaskLikeBefore(ownerId, "%42%",
+                OffsetDateTime.parse("9999-12-31T23:59:59Z"), new UUID(-1L, -1L), Limit.of(20));
+
+        assertTrue(page.getContent().stream().anyMatch(card -> card.cardMask().endsWith("0042")));
+        assertTrue(page.getContent().stream().allMatch(card -> card.cardMask().contains("42")));
+        assertEquals(page.getTotalElements(), slice.size());
+        assertEquals(0, cardRepo.findSummariesByOwnerAndMaskLike(ownerId, "%4\\_%", PageRequest.of(0, 20))
+                .getTotalElements());
+    }
+
+    @Test
+    void shouldFilterCardsByStatusWithIndex() {
+        assertUsesIndex("idx_cards_owner_status",
+                "SELECT * FROM cards WHERE owner_id = ? AND status = 'BLOCKED'::card_status", ownerId);
+    }
+
+    @Test
+    void shouldListOwnerCardsWithIndex() {
+        assertUsesIndex("idx_cards_owner_",
+                "SELECT * FROM cards WHERE owner_id = ?", ownerId);
+    }
+
+    @Test
+    void shouldReadCardSliceWithIndex() {
+        List<CardSummary> slice = cardRepo.findAllBefore(OffsetDateTime.parse("9999-12-31T23:59:59Z"),
+                new UUID(-1L, -1L), Limit.of(21));
+
+        assertEquals(21, slice.size());
+        assertUsesIndex("idx_cards_created_id",
+                "SELECT * FROM cards WHERE (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT 21",
+                slice.get(20).createdAt(), slice.get(20).id());
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... args) {
+        List<String> plan = jdbc.queryForList("EXPLAIN " + sql, String.class, args);
+        assertTrue(plan.stream().anyMatch(line -> line.contains(index)),
+                () -> "Expected " + index + " in plan:\n" + String.join("\n", plan));
+    }
+}
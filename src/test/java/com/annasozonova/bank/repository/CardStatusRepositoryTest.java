@@ -0,0 +1,105 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the set-based status changes of {@link CardStatusRepository} against a real
+ * PostgreSQL. Skipped when Docker is not available.
+ */
+@JdbcTest
+@Import(CardStatusRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class CardStatusRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private CardStatusRepository statusRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID activeCardId = UUID.randomUUID();
+    private final UUID blockedCardId = UUID.randomUUID();
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("INSERT INTO users (id, email, password_hash, enabled, created_at, updated_at) " +
+                "VALUES (?, 'owner@test.local', 'hash', true, now(), now())", ownerId);
+        insertCard(activeCardId, "ACTIVE");
+        insertCard(blockedCardId, "BLOCKED");
+    }
+
+    @Test
+    void shouldFindCardsOfOwners() {
+        assertEquals(Set.of(activeCardId, blockedCardId),
+                Set.copyOf(statusRepo.findIdsByOwners(List.of(ownerId, UUID.randomUUID()))));
+    }
+
+    @Test
+    void shouldOnlyChangeCardsInSourceStatus() {
+        List<UUID> changed = statusRepo.updateStatus(List.of(activeCardId, blockedCardId, UUID.randomUUID()),
+                CardStatus.ACTIVE, CardStatus.BLOCKED);
+
+        assertEquals(List.of(activeCardId), changed);
+        assertEquals("BLOCKED", jdbc.queryForObject("SELECT status::text FROM cards WHERE id = ?", String.class, activeCardId));
+        assertEquals(1L, jdbc.queryForObject("SELECT version FROM cards WHERE id = ?", Long.class, activeCardId));
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM cards WHERE id = ?", Long.class, blockedCardId));
+    }
+
+    @Test
+    void shouldExpireOnlyActiveCardsPastTheirDate() {
+        UUID dueCardId = UUID.randomUUID();
+        UUID lastDayCardId = UUID.randomUUID();
+        UUID blockedDueCardId = UUID.randomUUID();
+        insertCard(dueCardId, "ACTIVE", LocalDate.of(2025, 5, 31));
+        insertCard(lastDayCardId, "ACTIVE", LocalDate.of(2025, 6, 1));
+        insertCard(blockedDueCardId, "BLOCKED", LocalDate.of(2025, 5, 31));
+
+        assertEquals(List.of(dueCardId), statusRepo.expireBefore(LocalDate.of(2025, 6, 1), 10));
+        assertEquals(List.of(), statusRepo.expireBefore(LocalDate.of(2025, 6, 1), 10));
+
+        assertEquals("EXPIRED", jdbc.queryForObject("SELECT status::text FROM cards WHERE id = ?", String.class, dueCardId));
+        assertEquals("ACTIVE", jdbc.queryForObject("SELECT status::text FROM cards WHERE id = ?", String.class, lastDayCardId));
+    }
+
+    private void insertCard(UUID cardId, String status) {
+        insertCard(cardId, status, LocalDate.of(2030, 1, 31));
+    }
+
+    private void insertCard(UUID cardId, String status, LocalDate expirationDate) {
+        jdbc.update("INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+                "status, balance, created_at, updated_at) " +
+                "VALUES (?, '\\x00'::bytea, '**** **** **** 1234', '1234', ?, ?, " +
+                "?::card_status, 100, now(), now())", cardId, ownerId, expirationDate, status);
+    }
+}
@@ -0,0 +1,49 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.service.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the sink check of {@link OutboxRepository}.
+ */
+class OutboxRepositoryTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+    @Test
+    void shouldNotRecordEventsWithoutSink() {
+        OutboxRepository repo = new OutboxRepository(jdbc, new ObjectMapper(), List.of());
+
+        repo.appendCardStatus(UUID.randomUUID(), CardStatus.BLOCKED);
+        repo.appendCardStatuses(List.of(UUID.randomUUID(), UUID.randomUUID()), CardStatus.EXPIRED);
+        repo.appendTransfers(List.of(transfer()));
+
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void shouldRecordEventsWithSink() {
+        OutboxRepository repo = new OutboxRepository(jdbc, new ObjectMapper(), List.of(mock(OutboxSink.class)));
+
+        repo.appendCardStatus(UUID.randomUUID(), CardStatus.BLOCKED);
+        repo.appendTransfers(List.of(transfer()));
+
+        verify(jdbc, times(2)).batchUpdate(startsWith("INSERT INTO outbox_events"), anyList());
+    }
+
+    private static LedgerRepository.TransferPosting transfer() {
+        return new LedgerRepository.TransferPosting(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                Money.of(new BigDecimal("5.00")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.annasozonova.bank.repository;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.repository.TransactionArchiveRepository.ArchiveEntry;
+import com.annasozonova.bank.util.CursorCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link TransactionArchiveRepository}.
+ */
+class TransactionArchiveRepositoryTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+    private static final OffsetDateTime START = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldFindCardHistoryAcrossBlocks() throws IOException {
+        TransactionArchiveRepository repo = new TransactionArchiveRepository(dir, 4);
+        UUID before = card(1);
+        UUID target = card(2);
+        UUID after = card(3);
+        UUID other = card(9);
+        try (TransactionArchiveRepository.ArchiveWriter writer = repo.openWriter(MONTH)) {
+            writer.append(entry(before, 1, 100, null));
+            writer.append(entry(before, 2, 90, null));
+            writer.append(entry(before, 3, 80, null));
+            for (int i = 0; i < 6; i++) {
+                writer.append(entry(target, 10 + i, 60 - i, i == 0 ? "rent, \"May\"" : null));
+            }
+            writer.append(entry(after, 20, 50, null));
+            assertEquals(10, writer.commit());
+        }
+
+        assertTrue(repo.isArchived(MONTH));
+        assertFalse(repo.isArchived(MONTH.plusMonths(1)));
+        assertEquals(List.of(MONTH), List.copyOf(repo.archivedMonths()));
+
+        List<TransactionDto> history = repo.findCardTransactions(MONTH, target, null, 10);
+        assertEquals(6, history.size());
+        assertEquals(id(10), history.get(0).getId());
+        assertEquals(target, history.get(0).getFromCardId());
+        assertEquals(other, history.get(0).getToCardId());
+        assertEquals(new BigDecimal("12.34"), history.get(0).getAmount());
+        assertEquals(START.plusMinutes(60), history.get(0).getTransferDate());
+        assertEquals("rent, \"May\"", history.get(0).getDescription());
+        assertEquals(id(15), history.get(5).getId());
+
+        CursorCodec.Position position = new CursorCodec.Position(START.plusMinutes(58), id(12));
+        List<TransactionDto> page = repo.findCardTransactions(MONTH, target, position, 2);
+        assertEquals(List.of(id(13), id(14)), page.stream().map(TransactionDto::getId).toList());
+
+        assertTrue(repo.findCardTransactions(MONTH, card(5), null, 10).isEmpty());
+    }
+
+    @Test
+    void shouldDiscardUncommittedArchive() throws IOException {
+        TransactionArchiveRepository repo = new TransactionArchiveRepository(dir, 4);
+        try (TransactionArchiveRepository.ArchiveWriter writer = repo.openWriter(MONTH)) {
+            writer.append(entry(card(1), 1, 10, null));
+        }
+
+        assertFalse(repo.isArchived(MONTH));
+        assertTrue(repo.archivedMonths().isEmpty());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static ArchiveEntry entry(UUID cardId, int id, int minute, String description) {
+        return new ArchiveEntry(cardId, true, card(9), id(id), Money.of(new BigDecimal("12.34")),
+                START.plusMinutes(minute), "COMPLETED", description);
+    }
+
+    private static UUID card(int n) {
+        return new UUID(n, 0);
+    }
+
+    private static UUID id(int n) {
+        return new UUID(0, n);
+    }
+}
@@ -0,0 +1,85 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.repository.ReconciliationRepository;
+import com.annasozonova.bank.repository.ReconciliationRepository.BalanceCheck;
+import com.annasozonova.bank.repository.ReconciliationRepository.Checkpoint;
+import com.annasozonova.bank.util.UuidOrdering;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link BalanceReconciliationJob}.
+ */
+class BalanceReconciliationJobTest {
+
+    private final ReconciliationRepository repo = mock(ReconciliationRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldSplitUuidSpaceIntoAdjacentRanges() {
+        List<BalanceReconciliationJob.UuidRange> ranges = BalanceReconciliationJob.split(4);
+
+        assertEquals(4, ranges.size());
+        assertEquals(new UUID(0, 0), ranges.get(0).after());
+        assertEquals(new UUID(-1L, -1L), ranges.get(3).upTo());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).upTo(), ranges.get(i).after());
+            assertTrue(UuidOrdering.POSTGRES_ORDER.compare(ranges.get(i).after(), ranges.get(i).upTo()) < 0);
+        }
+    }
+
+    @Test
+    void shouldResumeUnfinishedRangesAndRecordMismatches() {
+        List<BalanceReconciliationJob.UuidRange> ranges = BalanceReconciliationJob.split(2);
+        UUID resumeAfter = UUID.fromString("10000000-0000-0000-0000-000000000000");
+        UUID matching = UUID.fromString("20000000-0000-0000-0000-000000000000");
+        UUID drifted = UUID.fromString("30000000-0000-0000-0000-000000000000");
+        when(repo.findCheckpoints()).thenReturn(Map.of(
+                0, new Checkpoint(resumeAfter, false),
+                1, new Checkpoint(ranges.get(1).upTo(), true)));
+        BalanceCheck drift = new BalanceCheck(drifted, Money.of(new BigDecimal("150.00")),
+                Money.of(new BigDecimal("100.00")));
+        when(repo.findBalances(resumeAfter, ranges.get(0).upTo(), 2)).thenReturn(List.of(
+                new BalanceCheck(matching, Money.ZERO, Money.ZERO), drift));
+        when(repo.findBalances(drifted, ranges.get(0).upTo(), 2)).thenReturn(List.of());
+
+        job(2).reconcile();
+
+        verify(repo, never()).startRun(anyInt());
+        verify(repo).saveMismatch(drift);
+        verify(repo).saveCheckpoint(0, drifted, false);
+        verify(repo).saveCheckpoint(0, ranges.get(0).upTo(), true);
+        verify(repo, never()).findBalances(eq(ranges.get(1).after()), any(), anyInt());
+        assertEquals(1.0, registry.get("bank.reconciliation.mismatches").counter().count());
+    }
+
+    @Test
+    void shouldStartNewRunWhenPreviousRunIsComplete() {
+        List<BalanceReconciliationJob.UuidRange> ranges = BalanceReconciliationJob.split(1);
+        when(repo.findCheckpoints())
+                .thenReturn(Map.of(0, new Checkpoint(ranges.get(0).upTo(), true)))
+                .thenReturn(Map.of(0, new Checkpoint(null, false)));
+        when(repo.findBalances(any(), any(), anyInt())).thenReturn(List.of());
+
+        job(1).reconcile();
+
+        verify(repo).startRun(1);
+        verify(repo).findBalances(ranges.get(0).after(), ranges.get(0).upTo(), 2);
+        verify(repo).saveCheckpoint(0, ranges.get(0).upTo(), true);
+    }
+
+    private BalanceReconciliationJob job(int ranges) {
+        return new BalanceReconciliationJob(repo, mock(DataSource.class), registry, ranges, 2, 2, 1_000_000);
+    }
+}
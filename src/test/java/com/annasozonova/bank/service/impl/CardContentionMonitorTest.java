@@ -0,0 +1,68 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardContentionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link CardContentionMonitor}.
+ */
+class CardContentionMonitorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shouldRankCardsByContendedTime() {
+        CardContentionMonitor monitor = monitor(10);
+        UUID payroll = UUID.randomUUID();
+        UUID quiet = UUID.randomUUID();
+
+        monitor.recordLockWait(payroll, 300 * MS);
+        monitor.recordLockWait(payroll, 200 * MS);
+        monitor.recordConflict(payroll, 2000 * MS);
+        monitor.recordLockWait(quiet, 20 * MS);
+
+        List<CardContentionDto> top = monitor.top(10);
+        assertEquals(payroll, top.get(0).getCardId());
+        assertEquals(2500, top.get(0).getContendedMs());
+        assertEquals(300, top.get(0).getMaxWaitMs());
+        assertEquals(2, top.get(0).getWaits());
+        assertEquals(1, top.get(0).getConflicts());
+        assertEquals(quiet, top.get(1).getCardId());
+    }
+
+    @Test
+    void shouldIgnoreShortWaitsInSketch() {
+        CardContentionMonitor monitor = monitor(10);
+        monitor.recordLockWait(UUID.randomUUID(), MS / 2);
+
+        assertTrue(monitor.top(10).isEmpty());
+    }
+
+    @Test
+    void shouldKeepHeavyHitterWhenCapacityIsExceeded() {
+        CardContentionMonitor monitor = monitor(3);
+        UUID hot = UUID.randomUUID();
+
+        for (int i = 0; i < 50; i++) {
+            monitor.recordLockWait(hot, 10 * MS);
+            monitor.recordLockWait(UUID.randomUUID(), 2 * MS);
+        }
+
+        List<CardContentionDto> top = monitor.top(3);
+        assertEquals(3, top.size());
+        assertEquals(hot, top.get(0).getCardId());
+        assertEquals(500, top.get(0).getContendedMs() - top.get(0).getErrorMs());
+    }
+
+    private static CardContentionMonitor monitor(int capacity) {
+        return new CardContentionMonitor(new SimpleMeterRegistry(), capacity, Duration.ofMillis(1));
+    }
+}
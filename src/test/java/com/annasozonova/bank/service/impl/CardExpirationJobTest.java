@@ -0,0 +1,55 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.repository.CardStatusRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link CardExpirationJob}.
+ */
+class CardExpirationJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    private final CardStatusRepository statusRepo = mock(CardStatusRepository.class);
+    private final OutboxRepository outboxRepo = mock(OutboxRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CardExpirationJob job = new CardExpirationJob(statusRepo, outboxRepo,
+            mock(PlatformTransactionManager.class), meterRegistry, 2);
+
+    @Test
+    void shouldExpireInBatchesUntilShortBatch() {
+        List<UUID> full = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> rest = List.of(UUID.randomUUID());
+        when(statusRepo.expireBefore(TODAY, 2)).thenReturn(full, rest);
+
+        assertEquals(3, job.expireBefore(TODAY));
+
+        verify(statusRepo, times(2)).expireBefore(TODAY, 2);
+        verify(outboxRepo).appendCardStatuses(full, CardStatus.EXPIRED);
+        verify(outboxRepo).appendCardStatuses(rest, CardStatus.EXPIRED);
+        assertEquals(3.0, meterRegistry.counter("bank.cards.expired").count());
+        assertEquals(2, meterRegistry.timer("bank.cards.expiration.batch").count());
+    }
+
+    @Test
+    void shouldDoNothingWhenNoCardIsDue() {
+        when(statusRepo.expireBefore(TODAY, 2)).thenReturn(List.of());
+
+        assertEquals(0, job.expireBefore(TODAY));
+
+        verifyNoInteractions(outboxRepo);
+        verify(statusRepo, times(1)).expireBefore(any(), anyInt());
+    }
+}
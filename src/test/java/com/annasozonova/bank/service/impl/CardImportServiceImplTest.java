@@ -0,0 +1,146 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.repository.CardImportRepository;
+import com.annasozonova.bank.repository.CardImportRepository.NewCard;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.util.CardCryptoUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link CardImportServiceImpl}.
+ */
+class CardImportServiceImplTest {
+
+    private static final UUID OWNER = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID UNKNOWN = UUID.fromString("660e8400-e29b-41d4-a716-446655440111");
+
+    private final CardImportRepository importRepo = mock(CardImportRepository.class);
+    private final LedgerRepository ledgerRepo = mock(LedgerRepository.class);
+    private final ValidatorFactory validation = Validation.buildDefaultValidatorFactory();
+    private final CardImportServiceImpl service = new CardImportServiceImpl(importRepo, ledgerRepo,
+            new ObjectMapper(), validation.getValidator(), mock(PlatformTransactionManager.class), 2, 2);
+
+    @AfterEach
+    void closeValidation() {
+        validation.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportValidRowsAndReportRejectedOnes() throws Exception {
+        when(importRepo.findExistingUsers(anyCollection())).thenReturn(Set.of(OWNER));
+
+        String report = run(row(OWNER, "1234123412345678", "100.50") +
+                row(OWNER, "12345", "1.00") +
+                row(UNKNOWN, "1111222233334444", "1.00") +
+                row(OWNER, "5555666677778888", "0"));
+
+        assertEquals("""
+                {"line":2,"error":"Card number must be 16 digits"}
+                {"processed":2,"imported":1,"failed":1,"finished":false}
+                {"line":3,"error":"User not found with id 660e8400-e29b-41d4-a716-446655440111"}
+                {"processed":4,"imported":2,"failed":2,"finished":false}
+                {"processed":4,"imported":2,"failed":2,"finished":true}
+                """, report);
+
+        ArgumentCaptor<List<NewCard>> cards = ArgumentCaptor.forClass(List.class);
+        verify(importRepo, times(2)).insertCards(cards.capture());
+        NewCard first = cards.getAllValues().get(0).get(0);
+        assertEquals(OWNER, first.ownerId());
+        assertEquals("**** **** **** 5678", first.cardMask());
+        assertEquals("5678", first.last4());
+        assertEquals("1234123412345678", CardCryptoUtil.decrypt(first.cardNumberEnc()));
+        verify(ledgerRepo).insertOpenings(Map.of(first.id(), Money.of(new BigDecimal("100.50"))));
+    }
+
+    @Test
+    void shouldRejectRowThatCannotBeSavedWithDatabaseReason() throws Exception {
+        when(importRepo.findExistingUsers(anyCollection())).thenReturn(Set.of(OWNER));
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new IllegalStateException("violates foreign key constraint\n  Detail: owner_id")))
+                .when(importRepo).insertCards(anyList());
+
+        String report = run(row(OWNER, "1234123412345678", "1.00") + row(OWNER, "1234123412345679", "-1.00"));
+
+        assertEquals("""
+                {"line":2,"error":"Initial balance must not be negative"}
+                {"line":1,"error":"Card could not be saved: violates foreign key constraint Detail: owner_id"}
+                {"processed":2,"imported":0,"failed":2,"finished":false}
+                {"processed":2,"imported":0,"failed":2,"finished":true}
+                """, report);
+        verifyNoInteractions(ledgerRepo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSaveValidRowsOfBatchAroundDuplicateRow() throws Exception {
+        CardImportServiceImpl batched = new CardImportServiceImpl(importRepo, ledgerRepo, new ObjectMapper(),
+                validation.getValidator(), mock(PlatformTransactionManager.class), 4, 2);
+        when(importRepo.findExistingUsers(anyCollection())).thenReturn(Set.of(OWNER));
+        doAnswer(invocation -> {
+            List<NewCard> cards = invocation.getArgument(0);
+            if (cards.stream().anyMatch(card -> card.last4().equals("9999"))) {
+                throw new DuplicateKeyException("batch failed", new IllegalStateException("duplicate card number"));
+            }
+            return null;
+        }).when(importRepo).insertCards(anyList());
+
+        String report = run(batched, row(OWNER, "1111111111111111", "1.00") +
+                row(OWNER, "2222222222222222", "1.00") +
+                row(OWNER, "9999999999999999", "1.00") +
+                row(OWNER, "4444444444444444", "1.00"));
+
+        assertEquals("""
+                {"line":3,"error":"Card could not be saved: duplicate card number"}
+                {"processed":4,"imported":3,"failed":1,"finished":false}
+                {"processed":4,"imported":3,"failed":1,"finished":true}
+                """, report);
+        ArgumentCaptor<List<NewCard>> cards = ArgumentCaptor.forClass(List.class);
+        verify(importRepo, times(5)).insertCards(cards.capture());
+        List<List<String>> attempts = cards.getAllValues().stream()
+                .map(batch -> batch.stream().map(NewCard::last4).toList())
+                .toList();
+        assertEquals(List.of(List.of("1111", "2222", "9999", "4444"), List.of("1111", "2222"),
+                List.of("9999", "4444"), List.of("9999"), List.of("4444")), attempts);
+        verify(ledgerRepo, times(2)).insertOpenings(anyMap());
+    }
+
+    private String run(String input) throws Exception {
+        return run(service, input);
+    }
+
+    private static String run(CardImportServiceImpl service, String input) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importCards(CardImportFormat.NDJSON, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))
+                .writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String row(UUID ownerId, String number, String balance) {
+        return "{\"userId\":\"" + ownerId + "\",\"number\":\"" + number +
+                "\",\"expiryDate\":\"2030-12-31\",\"initialBalance\":\"" + balance + "\"}\n";
+    }
+}
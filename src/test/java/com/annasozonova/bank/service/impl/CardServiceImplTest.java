@@ -0,0 +1,164 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardDto;
+import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.exception.ForbiddenOperationException;
+import com.annasozonova.bank.exception.ResourceNotFoundException;
+import com.annasozonova.bank.model.Card;
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.model.User;
+import com.annasozonova.bank.repository.CardOwnershipRepository;
+import com.annasozonova.bank.repository.CardOwnershipRepository.BalanceResult;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.CardStatusRepository;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.ReconciliationRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
+import com.annasozonova.bank.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the transaction and retry handling of {@link CardServiceImpl}.
+ */
+class CardServiceImplTest {
+
+    private final CardRepository cardRepo = mock(CardRepository.class);
+    private final CardOwnershipRepository ownershipRepo = mock(CardOwnershipRepository.class);
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final TransferEngine transferEngine = mock(TransferEngine.class);
+    private final TransferGroupCommitter groupCommitter = mock(TransferGroupCommitter.class);
+    private final CardContentionMonitor contentionMonitor = mock(CardContentionMonitor.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CardServiceImpl service = new CardServiceImpl(cardRepo,
+            ownershipRepo, mock(CardStatusRepository.class), userRepo,
+            mock(TransactionRepository.class), mock(LedgerRepository.class), mock(ReconciliationRepository.class),
+            mock(OutboxRepository.class), transferEngine, mock(TransferLanes.class), groupCommitter,
+            mock(IdempotencyStore.class),
+            new ConcurrencyRetryPolicy(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(1), 1.0, 10),
+            contentionMonitor, txManager, meterRegistry, TransferMode.LOCKING, 1000);
+
+    @Test
+    void shouldRetryUpdateOnFreshStateInNewTransactionAfterVersionConflict() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepo.findById(cardId)).thenAnswer(invocation -> Optional.of(card(cardId)));
+        doThrow(new ObjectOptimisticLockingFailureException(Card.class, cardId))
+                .doNothing()
+                .when(cardRepo).flush();
+
+        CardDto updated = service.updateCard(cardId, new CreateCardRequest(UUID.randomUUID(),
+                "4000123412349876", LocalDate.of(2031, 1, 31), BigDecimal.ZERO));
+
+        assertEquals("**** **** **** 9876", updated.getMaskedNumber());
+        verify(cardRepo, times(2)).findById(cardId);
+        verify(txManager, times(2)).getTransaction(any());
+        verify(txManager).rollback(any());
+        verify(txManager).commit(any());
+        verify(contentionMonitor).recordConflict(eq(cardId), anyLong());
+    }
+
+    @Test
+    void shouldSearchByLastFourDigitsOrFallBackToMaskPattern() {
+        UUID userId = UUID.randomUUID();
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(userRepo.findById(userId)).thenReturn(Optional.of(new User()));
+        when(userRepo.existsById(userId)).thenReturn(true);
+        when(cardRepo.findSummariesByOwnerAndLast4AndStatus(any(), any(), any(), any())).thenReturn(Page.empty());
+        when(cardRepo.findSummariesByOwnerAndMaskLike(any(), any(), any())).thenReturn(Page.empty());
+        when(cardRepo.findSummariesByOwnerAndMaskLikeAndStatus(any(), any(), any(), any())).thenReturn(Page.empty());
+
+        service.getUserCards(userId, "**** **** **** 5678", CardStatus.ACTIVE, pageable);
+        service.getUserCards(userId, "42", null, pageable);
+        service.getUserCards(userId, "4_%", CardStatus.BLOCKED, pageable);
+        service.getUserCardsSlice(userId, "*42", null, null, 10);
+
+        verify(cardRepo).findSummariesByOwnerAndLast4AndStatus(userId, "5678", CardStatus.ACTIVE, pageable);
+        verify(cardRepo).findSummariesByOwnerAndMaskLike(userId, "%42%", pageable);
+        verify(cardRepo).findSummariesByOwnerAndMaskLikeAndStatus(userId, "%4\\_\\%%", CardStatus.BLOCKED, pageable);
+        verify(cardRepo).findByOwnerAndMaskLikeBefore(eq(userId), eq("%*42%"), any(), any(), eq(Limit.of(11)));
+    }
+
+    @Test
+    void shouldReturnBalanceOfOwnCardFromSingleStatement() {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        when(ownershipRepo.balanceIfOwned(cardId, userId))
+                .thenReturn(Optional.of(new BalanceResult(true, Money.of(new BigDecimal("42.50")))));
+
+        assertEquals(new BigDecimal("42.50"), service.getCardBalance(userId, cardId));
+        verifyNoInteractions(cardRepo);
+    }
+
+    @Test
+    void shouldTellForeignCardBalanceFromMissingCard() {
+        UUID userId = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(ownershipRepo.balanceIfOwned(foreign, userId)).thenReturn(Optional.of(new BalanceResult(false, null)));
+        when(ownershipRepo.balanceIfOwned(missing, userId)).thenReturn(Optional.empty());
+
+        assertThrows(ForbiddenOperationException.class, () -> service.getCardBalance(userId, foreign));
+        assertThrows(ResourceNotFoundException.class, () -> service.getCardBalance(userId, missing));
+    }
+
+    @Test
+    void shouldRetryTransferAfterDeadlockAndSucceed() {
+        TransferRequest request = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("5.00"));
+        doThrow(new CannotAcquireLockException("deadlock detected"))
+                .doNothing()
+                .when(transferEngine).transfer(request, null);
+
+        service.transferFunds(request);
+
+        verify(transferEngine, times(2)).transfer(request, null);
+        assertEquals(1.0, meterRegistry.get("bank.retry.retries").tag("operation", "transfer").counter().count());
+    }
+
+    @Test
+    void shouldGiveUpTransferAfterMaxAttempts() {
+        TransferRequest request = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("5.00"));
+        PessimisticLockingFailureException timeout = new PessimisticLockingFailureException("lock timeout");
+        doThrow(timeout).when(transferEngine).transfer(request, null);
+
+        PessimisticLockingFailureException thrown =
+                assertThrows(PessimisticLockingFailureException.class, () -> service.transferFunds(request));
+
+        assertSame(timeout, thrown);
+        verify(transferEngine, times(3)).transfer(request, null);
+        assertEquals(1.0, meterRegistry.get("bank.retry.failures")
+                .tag("operation", "transfer").tag("reason", "attempts").counter().count());
+    }
+
+    private static Card card(UUID id) {
+        return Card.builder()
+                .id(id)
+                .cardMask("**** **** **** 1234")
+                .last4("1234")
+                .expirationDate(LocalDate.of(2030, 1, 31))
+                .status(CardStatus.ACTIVE)
+                .balance(Money.of(new BigDecimal("10.00")))
+                .version(0L)
+                .build();
+    }
+}
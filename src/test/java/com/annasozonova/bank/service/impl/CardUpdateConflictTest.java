@@ -0,0 +1,103 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.CardDto;
+import com.annasozonova.bank.dto.CreateCardRequest;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.service.CardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives {@link CardService#updateCard} through a real optimistic version conflict
+ * against PostgreSQL: right after the first read of the card, another connection
+ * changes it and commits. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class CardUpdateConflictTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("jwt.secret", () -> "test-secret-test-secret-test-secret-test-secret-test-secret-0000");
+    }
+
+    @Autowired
+    private CardService cardService;
+
+    @MockitoSpyBean
+    private CardRepository cardRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldRetryUpdateAfterConcurrentChange() {
+        UUID ownerId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, email, password_hash, enabled, created_at, updated_at) " +
+                "VALUES (?, 'owner@test.local', 'hash', true, now(), now())", ownerId);
+        jdbc.update("INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+                "status, balance, created_at, updated_at) " +
+                "VALUES (?, '\\x00'::bytea, '**** **** **** 1234', '1234', ?, DATE '2030-01-31', " +
+                "'ACTIVE', 100, now(), now())", cardId, ownerId);
+
+        AtomicBoolean changed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object card = invocation.callRealMethod();
+            if (changed.compareAndSet(false, true)) {
+                bumpVersionConcurrently(cardId);
+            }
+            return card;
+        }).when(cardRepo).findById(cardId);
+
+        CardDto updated = cardService.updateCard(cardId, new CreateCardRequest(ownerId,
+                "4000123412349876", LocalDate.of(2031, 1, 31), BigDecimal.ZERO));
+
+        assertEquals("**** **** **** 9876", updated.getMaskedNumber());
+        verify(cardRepo, times(2)).findById(cardId);
+        assertEquals(2L, jdbc.queryForObject("SELECT version FROM cards WHERE id = ?", Long.class, cardId));
+        assertEquals("9876", jdbc.queryForObject("SELECT last4 FROM cards WHERE id = ?", String.class, cardId));
+    }
+
+    /**
+     * Commits a change of the card on a separate connection, outside the transaction of
+     * the running update.
+     */
+    private void bumpVersionConcurrently(UUID cardId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE cards SET version = version + 1 WHERE id = ?")) {
+            connection.setAutoCommit(true);
+            update.setObject(1, cardId);
+            update.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.annasozonova.bank.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ConcurrencyRetryPolicy}.
+ */
+class ConcurrencyRetryPolicyTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRetryConflictUntilActionSucceeds() {
+        ConcurrencyRetryPolicy policy = policy(3, 1.0, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute("card.update", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale card");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, registry.get("bank.retry.conflicts").tag("type", "optimistic").counter().count());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        ConcurrencyRetryPolicy policy = policy(2, 1.0, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(PessimisticLockingFailureException.class, () -> policy.execute("transfer", () -> {
+            calls.incrementAndGet();
+            throw new PessimisticLockingFailureException("lock timeout");
+        }));
+
+        assertEquals(2, calls.get());
+        assertEquals(1.0, registry.get("bank.retry.failures").tag("reason", "attempts").counter().count());
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsSpent() {
+        ConcurrencyRetryPolicy policy = policy(5, 0.0, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> policy.execute("card.update", () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale card");
+        }));
+
+        assertEquals(2, calls.get(), "One saved token allows exactly one retry");
+        assertEquals(1.0, registry.get("bank.retry.failures").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        ConcurrencyRetryPolicy policy = policy(3, 1.0, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> policy.execute("card.update", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    private ConcurrencyRetryPolicy policy(int maxAttempts, double budgetRatio, int budgetMaxTokens) {
+        return new ConcurrencyRetryPolicy(registry, maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5),
+                budgetRatio, budgetMaxTokens);
+    }
+}
@@ -0,0 +1,63 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.JobCheckpointRepository;
+import com.annasozonova.bank.repository.LedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link LedgerSnapshotJob}.
+ */
+class LedgerSnapshotJobTest {
+
+    private final LedgerRepository ledgerRepo = mock(LedgerRepository.class);
+    private final CardRepository cardRepo = mock(CardRepository.class);
+    private final JobCheckpointRepository checkpoints = mock(JobCheckpointRepository.class);
+    private final LedgerSnapshotJob job = new LedgerSnapshotJob(
+            ledgerRepo, cardRepo, checkpoints, mock(PlatformTransactionManager.class), 100, 2);
+
+    @Test
+    void shouldRefreshCardsRangeByRangeFromCheckpoint() {
+        UUID a = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+        UUID b = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+        UUID c = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+        when(checkpoints.find(anyString())).thenReturn(50L);
+        when(ledgerRepo.maxPostingId()).thenReturn(230L);
+        when(ledgerRepo.findCardsWithPostings(50, 150)).thenReturn(List.of(c, a, b));
+        when(ledgerRepo.findCardsWithPostings(150, 230)).thenReturn(List.of());
+
+        job.run();
+
+        InOrder order = inOrder(cardRepo, ledgerRepo, checkpoints);
+        order.verify(cardRepo).findAllByIdForUpdate(List.of(a, b));
+        order.verify(ledgerRepo).refreshSnapshots(List.of(a, b));
+        order.verify(cardRepo).findAllByIdForUpdate(List.of(c));
+        order.verify(ledgerRepo).refreshSnapshots(List.of(c));
+        order.verify(checkpoints).save(anyString(), eq(150L));
+        order.verify(checkpoints).save(anyString(), eq(230L));
+    }
+
+    @Test
+    void shouldKeepCheckpointWhenCardsAreLocked() {
+        UUID card = UUID.randomUUID();
+        when(checkpoints.find(anyString())).thenReturn(0L);
+        when(ledgerRepo.maxPostingId()).thenReturn(10L);
+        when(ledgerRepo.findCardsWithPostings(0, 10)).thenReturn(List.of(card));
+        when(cardRepo.findAllByIdForUpdate(anyList()))
+                .thenThrow(new PessimisticLockingFailureException("lock timeout"));
+
+        job.run();
+
+        verify(ledgerRepo, never()).refreshSnapshots(anyList());
+        verify(checkpoints, never()).save(anyString(), anyLong());
+    }
+}
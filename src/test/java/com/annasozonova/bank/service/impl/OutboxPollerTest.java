@@ -0,0 +1,84 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.OutboxRepository.OutboxEvent;
+import com.annasozonova.bank.service.OutboxSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link OutboxPoller}.
+ */
+class OutboxPollerTest {
+
+    private final OutboxRepository outboxRepo = mock(OutboxRepository.class);
+    private final OutboxSink first = mock(OutboxSink.class);
+    private final OutboxSink second = mock(OutboxSink.class);
+    private final OutboxPoller poller = new OutboxPoller(outboxRepo, List.of(first, second),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 2,
+            Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+    @Test
+    void shouldDeliverBatchesToAllSinksAndDeleteThem() {
+        List<OutboxEvent> full = List.of(event(1, 0), event(2, 0));
+        List<OutboxEvent> rest = List.of(event(3, 0));
+        when(outboxRepo.claim(2)).thenReturn(full, rest);
+
+        poller.run();
+
+        InOrder order = inOrder(first, second, outboxRepo);
+        order.verify(first).deliver(full);
+        order.verify(second).deliver(full);
+        order.verify(outboxRepo).delete(List.of(1L, 2L));
+        order.verify(first).deliver(rest);
+        order.verify(second).deliver(rest);
+        order.verify(outboxRepo).delete(List.of(3L));
+        verify(outboxRepo, times(2)).claim(2);
+    }
+
+    @Test
+    void shouldPostponeBatchWhenSinkFails() {
+        when(outboxRepo.claim(2)).thenReturn(List.of(event(1, 0), event(2, 3)));
+        doThrow(new IllegalStateException("unavailable")).when(first).deliver(anyList());
+
+        poller.run();
+
+        verify(outboxRepo).reschedule(List.of(1L, 2L), Duration.ofSeconds(8));
+        verify(outboxRepo, never()).delete(anyList());
+        verify(second, never()).deliver(anyList());
+        verify(outboxRepo, times(1)).claim(2);
+    }
+
+    @Test
+    void shouldNotClaimEventsWithoutSink() {
+        OutboxPoller idle = new OutboxPoller(outboxRepo, List.of(), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 2, Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+        idle.run();
+
+        verifyNoInteractions(outboxRepo);
+    }
+
+    @Test
+    void shouldCapBackoff() {
+        assertEquals(Duration.ofSeconds(1), poller.backoff(0));
+        assertEquals(Duration.ofSeconds(16), poller.backoff(4));
+        assertEquals(Duration.ofSeconds(30), poller.backoff(40));
+    }
+
+    private static OutboxEvent event(long id, int attempts) {
+        return new OutboxEvent(id, OutboxRepository.CARD_BLOCKED, UUID.randomUUID(), "{}",
+                OffsetDateTime.now(), attempts);
+    }
+}
@@ -0,0 +1,94 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.TransactionArchiveRepository;
+import com.annasozonova.bank.repository.TransactionExportRepository;
+import com.annasozonova.bank.repository.UserRepository;
+import com.annasozonova.bank.service.TransactionExport;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the archive handling of {@link TransactionExportServiceImpl}.
+ */
+class TransactionExportServiceImplTest {
+
+    private static final YearMonth ARCHIVED = YearMonth.of(2024, 1);
+    private static final OffsetDateTime LIVE_FROM = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+
+    private final TransactionExportRepository exportRepo = mock(TransactionExportRepository.class);
+    private final TransactionArchiveRepository archiveRepo = mock(TransactionArchiveRepository.class);
+    private final CardRepository cardRepo = mock(CardRepository.class);
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final TransactionExportServiceImpl service = new TransactionExportServiceImpl(exportRepo, archiveRepo,
+            cardRepo, userRepo, mock(PlatformTransactionManager.class));
+
+    @Test
+    void shouldWriteArchivedMonthsOldestFirstBeforeLiveRows() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepo.existsById(cardId)).thenReturn(true);
+        when(archiveRepo.archivedMonths()).thenReturn(new TreeSet<>(Set.of(ARCHIVED)));
+        TransactionDto newer = tx(cardId, UUID.randomUUID(), "2024-01-20T10:00:00Z");
+        TransactionDto older = tx(UUID.randomUUID(), cardId, "2024-01-05T10:00:00Z");
+        when(archiveRepo.findCardTransactions(ARCHIVED, cardId, null, Integer.MAX_VALUE))
+                .thenReturn(List.of(newer, older));
+
+        String output = export(service.exportCardTransactions(cardId, TransactionExportFormat.CSV));
+
+        String[] lines = output.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith(older.getId().toString()));
+        assertTrue(lines[2].startsWith(newer.getId().toString()));
+        verify(exportRepo).streamCardTransactions(eq(cardId), eq(LIVE_FROM), any());
+    }
+
+    @Test
+    void shouldWriteArchivedTransferBetweenOwnCardsOnce() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(userRepo.existsById(userId)).thenReturn(true);
+        when(exportRepo.findCardIds(userId)).thenReturn(Set.of(first, second));
+        when(archiveRepo.archivedMonths()).thenReturn(new TreeSet<>(Set.of(ARCHIVED)));
+        TransactionDto own = tx(first, second, "2024-01-10T10:00:00Z");
+        TransactionDto incoming = tx(UUID.randomUUID(), second, "2024-01-11T10:00:00Z");
+        when(archiveRepo.findCardTransactions(ARCHIVED, first, null, Integer.MAX_VALUE)).thenReturn(List.of(own));
+        when(archiveRepo.findCardTransactions(ARCHIVED, second, null, Integer.MAX_VALUE))
+                .thenReturn(List.of(incoming, own));
+
+        String output = export(service.exportUserTransactions(userId, TransactionExportFormat.CSV));
+
+        String[] lines = output.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith(own.getId().toString()));
+        assertTrue(lines[2].startsWith(incoming.getId().toString()));
+        verify(exportRepo).streamUserTransactions(eq(userId), eq(LIVE_FROM), any());
+    }
+
+    private static String export(TransactionExport export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static TransactionDto tx(UUID from, UUID to, String date) {
+        return new TransactionDto(UUID.randomUUID(), from, to, new BigDecimal("5.00"),
+                OffsetDateTime.parse(date), "COMPLETED", null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.repository.TransactionPartitionRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.YearMonth;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link TransactionPartitionManager}.
+ */
+class TransactionPartitionManagerTest {
+
+    private final TransactionPartitionRepository partitionRepo = mock(TransactionPartitionRepository.class);
+
+    @Test
+    void shouldCreateUpcomingPartitionsAndLeaveOldOnesToTheArchive() {
+        new TransactionPartitionManager(partitionRepo, 2).maintain(YearMonth.of(2026, 10));
+
+        InOrder order = inOrder(partitionRepo);
+        order.verify(partitionRepo).createPartition(YearMonth.of(2026, 10));
+        order.verify(partitionRepo).createPartition(YearMonth.of(2026, 11));
+        order.verify(partitionRepo).createPartition(YearMonth.of(2026, 12));
+        verify(partitionRepo, times(3)).createPartition(any());
+        verify(partitionRepo, never()).dropPartition(any());
+    }
+
+    @Test
+    void shouldKeepGoingWhenPartitionCannotBeCreated() {
+        doThrow(new DataIntegrityViolationException("default partition holds rows"))
+                .when(partitionRepo).createPartition(YearMonth.of(2026, 11));
+
+        new TransactionPartitionManager(partitionRepo, 2).maintain(YearMonth.of(2026, 10));
+
+        verify(partitionRepo).createPartition(YearMonth.of(2026, 12));
+    }
+}
@@ -0,0 +1,87 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionHistoryDto;
+import com.annasozonova.bank.model.Card;
+import com.annasozonova.bank.repository.CardDailyStatsRepository;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.TransactionArchiveRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
+import com.annasozonova.bank.util.CursorCodec;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the history walk of {@link TransactionServiceImpl}.
+ */
+class TransactionServiceImplTest {
+
+    private final TransactionRepository txRepo = mock(TransactionRepository.class);
+    private final CardRepository cardRepo = mock(CardRepository.class);
+    private final TransactionArchiveRepository archiveRepo = mock(TransactionArchiveRepository.class);
+    private final TransactionServiceImpl service = new TransactionServiceImpl(txRepo, cardRepo,
+            mock(CardDailyStatsRepository.class), archiveRepo);
+
+    @Test
+    void shouldReadLiveMonthsWithOneSeekThenOnlyArchivedMonths() {
+        UUID cardId = UUID.randomUUID();
+        card(cardId, OffsetDateTime.parse("2019-05-10T12:00:00Z"));
+        TreeSet<YearMonth> archived = new TreeSet<>();
+        for (YearMonth m = YearMonth.of(2019, 5); m.isBefore(YearMonth.of(2024, 1)); m = m.plusMonths(1)) {
+            archived.add(m);
+        }
+        when(archiveRepo.archivedMonths()).thenReturn(archived);
+        when(archiveRepo.findCardTransactions(eq(YearMonth.of(2023, 12)), eq(cardId), isNull(), eq(3)))
+                .thenReturn(List.of(tx(cardId, "2023-12-20T10:00:00Z"), tx(cardId, "2023-12-10T10:00:00Z")));
+        when(archiveRepo.findCardTransactions(eq(YearMonth.of(2023, 11)), eq(cardId), isNull(), eq(1)))
+                .thenReturn(List.of(tx(cardId, "2023-11-05T10:00:00Z")));
+        OffsetDateTime cursorDate = OffsetDateTime.parse("2025-06-15T08:00:00Z");
+        UUID cursorId = UUID.randomUUID();
+        OffsetDateTime hotStart = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+
+        TransactionHistoryDto page = service.getCardHistory(cardId, CursorCodec.encode(cursorDate, cursorId), 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        verify(txRepo).findOutgoingBefore(eq(cardId), eq(hotStart), eq(cursorDate), eq(cursorId), any());
+        verify(txRepo).findIncomingBefore(eq(cardId), eq(hotStart), eq(cursorDate), eq(cursorId), any());
+        verify(archiveRepo, times(2)).findCardTransactions(any(), any(), any(), anyInt());
+        verifyNoMoreInteractions(txRepo);
+    }
+
+    @Test
+    void shouldReadWholeHistoryWithOneRangeScanPerDirectionWithoutArchive() {
+        UUID cardId = UUID.randomUUID();
+        card(cardId, OffsetDateTime.now().minusYears(5));
+        when(archiveRepo.archivedMonths()).thenReturn(new TreeSet<>());
+
+        TransactionHistoryDto page = service.getCardHistory(cardId, null, 10);
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+        verify(txRepo).findOutgoing(eq(cardId), any(), any(), any());
+        verify(txRepo).findIncoming(eq(cardId), any(), any(), any());
+        verifyNoMoreInteractions(txRepo);
+        verify(archiveRepo, never()).findCardTransactions(any(), any(), any(), anyInt());
+    }
+
+    private void card(UUID cardId, OffsetDateTime createdAt) {
+        when(cardRepo.findById(cardId)).thenReturn(Optional.of(Card.builder().id(cardId).createdAt(createdAt).build()));
+    }
+
+    private static TransactionDto tx(UUID cardId, String date) {
+        return new TransactionDto(UUID.randomUUID(), cardId, UUID.randomUUID(), BigDecimal.ONE,
+                OffsetDateTime.parse(date), "SUCCESS", null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs rejected {@link TransferEngine#transferConditional(TransferRequest)} calls against
+ * PostgreSQL and checks that a statement already applied before the rejection is rolled
+ * back. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class TransferConditionalRollbackTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("jwt.secret", () -> "test-secret-test-secret-test-secret-test-secret-test-secret-0000");
+    }
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void shouldRollBackCreditWhenSourceHasInsufficientFunds() {
+        UUID owner = user();
+        UUID source = card(high(), owner, "ACTIVE", "10.00");
+        UUID target = card(low(), owner, "ACTIVE", "0.00");
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> transferEngine.transferConditional(new TransferRequest(source, target, new BigDecimal("30.00"))));
+
+        assertEquals("Insufficient funds on source card", ex.getMessage());
+        assertUnchanged(source, "10.00");
+        assertUnchanged(target, "0.00");
+    }
+
+    @Test
+    void shouldRollBackDebitWhenTargetIsInactive() {
+        UUID owner = user();
+        UUID source = card(low(), owner, "ACTIVE", "100.00");
+        UUID target = card(high(), owner, "BLOCKED", "0.00");
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> transferEngine.transferConditional(new TransferRequest(source, target, new BigDecimal("30.00"))));
+
+        assertEquals("Both cards must be active", ex.getMessage());
+        assertUnchanged(source, "100.00");
+        assertUnchanged(target, "0.00");
+    }
+
+    @Test
+    void shouldRejectTransferBetweenDifferentOwnersWithoutChanges() {
+        UUID source = card(high(), user(), "ACTIVE", "100.00");
+        UUID target = card(low(), user(), "ACTIVE", "0.00");
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> transferEngine.transferConditional(new TransferRequest(source, target, new BigDecimal("30.00"))));
+
+        assertEquals("Cards do not belong to the same user", ex.getMessage());
+        assertUnchanged(source, "100.00");
+        assertUnchanged(target, "0.00");
+    }
+
+    private void assertUnchanged(UUID cardId, String balance) {
+        assertEquals(new BigDecimal(balance),
+                jdbc.queryForObject("SELECT balance FROM cards WHERE id = ?", BigDecimal.class, cardId));
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM cards WHERE id = ?", Long.class, cardId));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM postings WHERE card_id = ?", Integer.class, cardId));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM transactions WHERE from_card_id = ? OR to_card_id = ?",
+                Integer.class, cardId, cardId));
+    }
+
+    private UUID user() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, email, password_hash, enabled, created_at, updated_at) " +
+                "VALUES (?, ?, 'hash', true, now(), now())", id, id + "@test.local");
+        return id;
+    }
+
+    private UUID card(UUID id, UUID ownerId, String status, String balance) {
+        jdbc.update("INSERT INTO cards (id, card_number_enc, card_mask, last4, owner_id, expiration_date, " +
+                "status, balance, created_at, updated_at) " +
+                "VALUES (?, '\\x00'::bytea, '**** **** **** 1234', '1234', ?, DATE '2030-01-31', " +
+                "?::card_status, ?, now(), now())", id, ownerId, status, new BigDecimal(balance));
+        return id;
+    }
+
+    /**
+     * A card ID sorting before every {@link #high()} one in PostgreSQL order.
+     */
+    private static UUID low() {
+        return new UUID(0x1000_0000_0000_0000L, ThreadLocalRandom.current().nextLong());
+    }
+
+    private static UUID high() {
+        return new UUID(0xF000_0000_0000_0000L, ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,185 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.exception.BusinessException;
+import com.annasozonova.bank.model.Card;
+import com.annasozonova.bank.model.CardStatus;
+import com.annasozonova.bank.model.Money;
+import com.annasozonova.bank.model.Transaction;
+import com.annasozonova.bank.model.User;
+import com.annasozonova.bank.repository.CardDailyStatsRepository;
+import com.annasozonova.bank.repository.CardRepository;
+import com.annasozonova.bank.repository.LedgerRepository;
+import com.annasozonova.bank.repository.OutboxRepository;
+import com.annasozonova.bank.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the lock order and rejections of {@link TransferEngine}.
+ */
+class TransferEngineTest {
+
+    /**
+     * Sorts first in PostgreSQL order.
+     */
+    private static final UUID LOW = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    /**
+     * Sorts last in PostgreSQL order, but first by {@link UUID#compareTo(UUID)}: the high bit is set.
+     */
+    private static final UUID HIGH = UUID.fromString("f0000000-0000-0000-0000-000000000001");
+
+    private final CardRepository cardRepo = mock(CardRepository.class);
+    private final TransactionRepository txRepo = mock(TransactionRepository.class);
+    private final LedgerRepository ledgerRepo = mock(LedgerRepository.class);
+    private final TransferEngine engine = new TransferEngine(cardRepo, txRepo, ledgerRepo,
+            mock(CardDailyStatsRepository.class), mock(OutboxRepository.class), mock(CardContentionMonitor.class),
+            new SimpleMeterRegistry());
+
+    private final User owner = User.builder().id(UUID.randomUUID()).build();
+
+    @Test
+    void shouldLockLowerCardFirstWhenSourceSortsFirst() {
+        Card low = card(LOW, "100.00");
+        Card high = card(HIGH, "0.00");
+        lockable(low, high);
+
+        engine.transfer(new TransferRequest(LOW, HIGH, new BigDecimal("30.00")));
+
+        InOrder order = inOrder(cardRepo);
+        order.verify(cardRepo).findByIdForUpdate(LOW);
+        order.verify(cardRepo).findByIdForUpdate(HIGH);
+        assertEquals(Money.of(new BigDecimal("70.00")), low.getBalance());
+        assertEquals(Money.of(new BigDecimal("30.00")), high.getBalance());
+    }
+
+    @Test
+    void shouldLockLowerCardFirstWhenTargetSortsFirst() {
+        Card low = card(LOW, "0.00");
+        Card high = card(HIGH, "100.00");
+        lockable(low, high);
+
+        engine.transfer(new TransferRequest(HIGH, LOW, new BigDecimal("30.00")));
+
+        InOrder order = inOrder(cardRepo);
+        order.verify(cardRepo).findByIdForUpdate(LOW);
+        order.verify(cardRepo).findByIdForUpdate(HIGH);
+        assertEquals(Money.of(new BigDecimal("70.00")), high.getBalance());
+        assertEquals(Money.of(new BigDecimal("30.00")), low.getBalance());
+    }
+
+    @Test
+    void shouldRejectConditionalTransferWithInsufficientFundsAfterCreditWasApplied() {
+        Card low = card(LOW, "0.00");
+        Card high = card(HIGH, "10.00");
+        conditional(high, low, 1, 0);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> engine.transferConditional(new TransferRequest(HIGH, LOW, new BigDecimal("30.00"))));
+
+        assertEquals("Insufficient funds on source card", ex.getMessage());
+        InOrder order = inOrder(cardRepo);
+        order.verify(cardRepo).creditIfAllowed(eq(LOW), eq(HIGH), any(), any());
+        order.verify(cardRepo).debitIfAllowed(eq(HIGH), eq(LOW), any(), any());
+        verifyNothingRecorded();
+    }
+
+    @Test
+    void shouldRejectConditionalTransferToInactiveCardAfterDebitWasApplied() {
+        Card low = card(LOW, "20.00");
+        Card high = card(HIGH, "0.00");
+        high.setStatus(CardStatus.BLOCKED);
+        conditional(low, high, 1, 0);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> engine.transferConditional(new TransferRequest(LOW, HIGH, new BigDecimal("30.00"))));
+
+        assertEquals("Both cards must be active", ex.getMessage());
+        InOrder order = inOrder(cardRepo);
+        order.verify(cardRepo).debitIfAllowed(eq(LOW), eq(HIGH), any(), any());
+        order.verify(cardRepo).creditIfAllowed(eq(HIGH), eq(LOW), any(), any());
+        verify(cardRepo, never()).findById(LOW);
+        verifyNothingRecorded();
+    }
+
+    @Test
+    void shouldRejectConditionalTransferFromInactiveCardWithoutReadingCreditedTarget() {
+        Card low = card(LOW, "0.00");
+        Card high = card(HIGH, "100.00");
+        high.setStatus(CardStatus.BLOCKED);
+        conditional(high, low, 1, 0);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> engine.transferConditional(new TransferRequest(HIGH, LOW, new BigDecimal("30.00"))));
+
+        assertEquals("Both cards must be active", ex.getMessage());
+        verify(cardRepo, never()).findById(LOW);
+        verifyNothingRecorded();
+    }
+
+    @Test
+    void shouldRejectConditionalTransferBetweenDifferentOwners() {
+        Card low = card(LOW, "100.00");
+        Card high = card(HIGH, "0.00");
+        high.setOwner(User.builder().id(UUID.randomUUID()).build());
+        conditional(low, high, 0, 0);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> engine.transferConditional(new TransferRequest(LOW, HIGH, new BigDecimal("30.00"))));
+
+        assertEquals("Cards do not belong to the same user", ex.getMessage());
+        verify(cardRepo, never()).creditIfAllowed(any(), any(), any(), any());
+        verifyNothingRecorded();
+    }
+
+    /**
+     * Stubs the conditional statements, in lock order, with the given row counts; the cards
+     * are returned by the reads that explain a rejection. The balances are the ones the
+     * rejection sees, i.e. after the first statement was applied.
+     */
+    private void conditional(Card from, Card to, int firstStatementRows, int secondStatementRows) {
+        boolean sourceFirst = from.getId().equals(LOW);
+        when(cardRepo.debitIfAllowed(eq(from.getId()), eq(to.getId()), any(), any()))
+                .thenReturn(sourceFirst ? firstStatementRows : secondStatementRows);
+        when(cardRepo.creditIfAllowed(eq(to.getId()), eq(from.getId()), any(), any()))
+                .thenReturn(sourceFirst ? secondStatementRows : firstStatementRows);
+        when(cardRepo.findById(from.getId())).thenReturn(Optional.of(from));
+        when(cardRepo.findById(to.getId())).thenReturn(Optional.of(to));
+    }
+
+    private void verifyNothingRecorded() {
+        verify(txRepo, never()).save(any());
+        verify(txRepo, never()).updateStatusIfPending(any(), any(), any());
+        verifyNoInteractions(ledgerRepo);
+    }
+
+    private void lockable(Card... cards) {
+        for (Card card : cards) {
+            when(cardRepo.findByIdForUpdate(card.getId())).thenReturn(Optional.of(card));
+        }
+        when(txRepo.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+    }
+
+    private Card card(UUID id, String balance) {
+        return Card.builder()
+                .id(id)
+                .owner(owner)
+                .status(CardStatus.ACTIVE)
+                .balance(Money.of(new BigDecimal(balance)))
+                .build();
+    }
+}
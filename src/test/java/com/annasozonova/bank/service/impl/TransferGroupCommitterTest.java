@@ -0,0 +1,94 @@
+package com.annasozonova.bank.service.impl;
+
+import com.annasozonova.bank.dto.TransferRequest;
+import com.annasozonova.bank.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link TransferGroupCommitter}.
+ */
+class TransferGroupCommitterTest {
+
+    private final TransferEngine engine = mock(TransferEngine.class);
+    private TransferGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.stop();
+    }
+
+    @Test
+    void shouldApplyQueuedTransfersInOneGroupAndReportEachOutcome() throws Exception {
+        BusinessException rejection = new BusinessException("Insufficient funds on source card");
+        List<List<TransferRequest>> groups = new ArrayList<>();
+        when(engine.transferGroup(anyList())).thenAnswer(invocation -> {
+            List<TransferRequest> group = invocation.getArgument(0);
+            groups.add(group);
+            List<RuntimeException> outcomes = new ArrayList<>();
+            group.forEach(r -> outcomes.add(r.getAmount().compareTo(new BigDecimal("100")) > 0 ? rejection : null));
+            return outcomes;
+        });
+        committer = start(3, Duration.ofSeconds(5));
+
+        CompletableFuture<Void> first = committer.submit(transfer("10.00"));
+        CompletableFuture<Void> second = committer.submit(transfer("500.00"));
+        CompletableFuture<Void> third = committer.submit(transfer("20.00"));
+
+        assertNull(first.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertSame(rejection, failure.getCause());
+        assertNull(third.get(5, TimeUnit.SECONDS));
+        assertEquals(1, groups.size(), "A full window is committed as a single group");
+        assertEquals(3, groups.get(0).size());
+    }
+
+    @Test
+    void shouldFlushPartialGroupAfterMaxWait() throws Exception {
+        when(engine.transferGroup(anyList())).thenAnswer(invocation -> {
+            List<TransferRequest> group = invocation.getArgument(0);
+            return new ArrayList<RuntimeException>(Collections.nCopies(group.size(), null));
+        });
+        committer = start(100, Duration.ofMillis(10));
+
+        assertNull(committer.submit(transfer("10.00")).get(5, TimeUnit.SECONDS));
+        verify(engine).transferGroup(anyList());
+    }
+
+    @Test
+    void shouldFailWholeGroupWhenTransactionRollsBack() {
+        IllegalStateException rollback = new IllegalStateException("connection lost");
+        when(engine.transferGroup(anyList())).thenThrow(rollback);
+        committer = start(1, Duration.ofMillis(10));
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> committer.submit(transfer("10.00")).get(5, TimeUnit.SECONDS));
+        assertSame(rollback, failure.getCause());
+    }
+
+    private TransferGroupCommitter start(int maxBatchSize, Duration maxWait) {
+        TransferGroupCommitter started = new TransferGroupCommitter(
+                engine, new SimpleMeterRegistry(), true, maxBatchSize, maxWait);
+        started.start();
+        return started;
+    }
+
+    private static TransferRequest transfer(String amount) {
+        return new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(amount));
+    }
+}
@@ -2,6 +2,15 @@ package com.annasozonova.bank.util;
 
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -20,4 +29,56 @@ class CardCryptoUtilTest {
         String decrypted = CardCryptoUtil.decrypt(encrypted);
         assertEquals(original, decrypted, "Decrypted value should match original");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldWriteVersionedGcmPayloadWithFreshIv() {
+        byte[] first = CardCryptoUtil.encrypt("1234567812345678");
+        byte[] second = CardCryptoUtil.encrypt("1234567812345678");
+
+        assertEquals(1, first[0], "Payload should start with the GCM version");
+        assertEquals(1 + 12 + 16 + 16, first.length, "Header, IV, ciphertext and tag expected");
+        assertNotEquals(new String(first, StandardCharsets.ISO_8859_1), new String(second, StandardCharsets.ISO_8859_1),
+                "Each encryption should use a new IV");
+    }
+
+    @Test
+    void shouldDecryptLegacyEcbPayload() throws Exception {
+        Cipher ecb = Cipher.getInstance("AES");
+        ecb.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("1234567890123456".getBytes(), "AES"));
+        byte[] legacy = ecb.doFinal("4000123412341234".getBytes());
+
+        assertEquals("4000123412341234", CardCryptoUtil.decrypt(legacy));
+    }
+
+    @Test
+    void shouldRejectTamperedPayload() {
+        byte[] encrypted = CardCryptoUtil.encrypt("1234567812345678");
+        encrypted[encrypted.length - 1] ^= 1;
+
+        assertThrows(RuntimeException.class, () -> CardCryptoUtil.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldEncryptConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String number = String.format("%016d", i);
+                results.add(pool.submit(() -> {
+                    for (int n = 0; n < 500; n++) {
+                        if (!number.equals(CardCryptoUtil.decrypt(CardCryptoUtil.encrypt(number)))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Every round trip should return the original number");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
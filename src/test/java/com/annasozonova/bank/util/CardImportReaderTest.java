@@ -0,0 +1,75 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.dto.CardImportFormat;
+import com.annasozonova.bank.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link CardImportReader}.
+ */
+class CardImportReaderTest {
+
+    private static final UUID OWNER = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+    @Test
+    void shouldReadNdjsonInBatchesWithLineNumbers() throws Exception {
+        CardImportReader reader = reader(CardImportFormat.NDJSON,
+                "{\"userId\":\"" + OWNER + "\",\"number\":\"1234123412341234\",\"expiryDate\":\"2030-12-31\",\"initialBalance\":100.10}\n" +
+                "\n" +
+                "not json\n" +
+                "{\"userId\":\"nope\"}\n");
+
+        List<CardImportReader.Row> first = reader.nextBatch(2);
+        assertEquals(2, first.size());
+        assertEquals(1, first.get(0).line());
+        assertEquals(OWNER, first.get(0).request().getUserId());
+        assertEquals(LocalDate.of(2030, 12, 31), first.get(0).request().getExpiryDate());
+        assertEquals(new BigDecimal("100.10"), first.get(0).request().getInitialBalance());
+        assertEquals(3, first.get(1).line());
+        assertEquals("Malformed JSON", first.get(1).error());
+
+        List<CardImportReader.Row> second = reader.nextBatch(2);
+        assertEquals(1, second.size());
+        assertEquals("Invalid userId: nope", second.get(0).error());
+        assertTrue(reader.nextBatch(2).isEmpty());
+    }
+
+    @Test
+    void shouldReadCsvColumnsByHeaderName() throws Exception {
+        CardImportReader reader = reader(CardImportFormat.CSV,
+                "number,initialBalance,expiryDate,userId\r\n" +
+                "\"1234123412341234\",0.00,2030-12-31," + OWNER + "\r\n" +
+                "5555,,2030-12-31," + OWNER + "\r\n");
+
+        List<CardImportReader.Row> rows = reader.nextBatch(10);
+        assertEquals(2, rows.size());
+        assertEquals("1234123412341234", rows.get(0).request().getNumber());
+        assertEquals(OWNER, rows.get(0).request().getUserId());
+        assertEquals(3, rows.get(1).line());
+        assertNull(rows.get(1).request().getInitialBalance());
+    }
+
+    @Test
+    void shouldRejectCsvHeaderWithoutRequiredColumn() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> reader(CardImportFormat.CSV, "userId,number,expiryDate\n"));
+
+        assertEquals("CSV header must contain column initialBalance", ex.getMessage());
+    }
+
+    private static CardImportReader reader(CardImportFormat format, String input) throws IOException {
+        return CardImportReader.create(format, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new ObjectMapper());
+    }
+}
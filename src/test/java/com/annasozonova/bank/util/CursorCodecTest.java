@@ -0,0 +1,32 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link CursorCodec} encoding and decoding.
+ */
+class CursorCodecTest {
+
+    @Test
+    void shouldRoundTripPosition() {
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-05-01T15:30:00.123456+03:00");
+        UUID id = UUID.randomUUID();
+
+        CursorCodec.Position position = CursorCodec.decode(CursorCodec.encode(timestamp, id));
+
+        assertEquals(timestamp.toInstant(), position.timestamp().toInstant());
+        assertEquals(id, position.id());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(BusinessException.class, () -> CursorCodec.decode("not a cursor"));
+        assertThrows(BusinessException.class, () -> CursorCodec.decode("AAAA"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.annasozonova.bank.util;
+
+import com.annasozonova.bank.dto.TransactionDto;
+import com.annasozonova.bank.dto.TransactionExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link TransactionExportWriter}.
+ */
+class TransactionExportWriterTest {
+
+    private static final UUID ID = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    private static final UUID FROM = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID TO = UUID.fromString("660e8400-e29b-41d4-a716-446655440111");
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        String output = export(TransactionExportFormat.NDJSON, row(null), row("rent \"May\""));
+
+        String expectedRow = "{\"id\":\"" + ID + "\",\"fromCardId\":\"" + FROM + "\",\"toCardId\":\"" + TO +
+                "\",\"amount\":50.00,\"transferDate\":\"2025-05-01T09:30Z\",\"status\":\"COMPLETED\",";
+        assertEquals(expectedRow + "\"description\":null}\n" +
+                expectedRow + "\"description\":\"rent \\\"May\\\"\"}\n", output);
+    }
+
+    @Test
+    void shouldWriteCsvWithHeaderAndQuotedDescription() throws Exception {
+        String output = export(TransactionExportFormat.CSV, row(null), row("rent, \"May\""));
+
+        String expectedRow = ID + "," + FROM + "," + TO + ",50.00,2025-05-01T09:30Z,COMPLETED,";
+        assertEquals("id,fromCardId,toCardId,amount,transferDate,status,description\r\n" +
+                expectedRow + "\r\n" +
+                expectedRow + "\"rent, \"\"May\"\"\"\r\n", output);
+    }
+
+    @Test
+    void shouldWriteArchivedTransactionLikeDatabaseRow() throws Exception {
+        TransactionDto archived = new TransactionDto(ID, FROM, TO, new BigDecimal("50.00"),
+                OffsetDateTime.of(2025, 5, 1, 12, 30, 0, 0, ZoneOffset.ofHours(3)), "COMPLETED", "rent, \"May\"");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = TransactionExportWriter.create(TransactionExportFormat.CSV, out)) {
+            writer.write(archived);
+            writer.write(row("rent, \"May\""));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals(lines[2], lines[1]);
+    }
+
+    private static String export(TransactionExportFormat format, ResultSet... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = TransactionExportWriter.create(format, out)) {
+            for (ResultSet row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ResultSet row(String description) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(ID);
+        when(rs.getObject("from_card_id", UUID.class)).thenReturn(FROM);
+        when(rs.getObject("to_card_id", UUID.class)).thenReturn(TO);
+        when(rs.getBigDecimal("amount")).thenReturn(new BigDecimal("50.00"));
+        when(rs.getObject("transfer_date", OffsetDateTime.class))
+                .thenReturn(OffsetDateTime.of(2025, 5, 1, 12, 30, 0, 0, ZoneOffset.ofHours(3)));
+        when(rs.getString("status")).thenReturn("COMPLETED");
+        when(rs.getString("description")).thenReturn(description);
+        return rs;
+    }
+}
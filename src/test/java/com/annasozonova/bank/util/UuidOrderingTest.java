@@ -0,0 +1,32 @@
+package com.annasozonova.bank.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link UuidOrdering} comparator.
+ */
+class UuidOrderingTest {
+
+    @Test
+    void shouldOrderUuidsAsUnsignedBytes() {
+        UUID low = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+
+        assertTrue(low.compareTo(high) > 0, "UUID.compareTo treats the high bit as a sign");
+        assertTrue(UuidOrdering.compare(low, high) < 0, "Unsigned order must put 7f... before 80...");
+        assertEquals(0, UuidOrdering.compare(high, UUID.fromString(high.toString())));
+    }
+
+    @Test
+    void shouldCompareLeastSignificantBitsWhenHighBitsEqual() {
+        UUID a = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID b = UUID.fromString("00000000-0000-0000-8000-000000000000");
+
+        assertTrue(UuidOrdering.compare(a, b) < 0);
+        assertTrue(UuidOrdering.compare(b, a) > 0);
+    }
+}